@@ -2,17 +2,23 @@ package dev.codescreen.controller;
 
 import dev.codescreen.dto.BankLedgerRequest;
 import dev.codescreen.service.BankLedgerService;
+import dev.codescreen.util.LedgerClock;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-
 @RestController
 public class BankLedgerController {
     // Service layer dependency for handling bank ledger operations
     private final BankLedgerService bankLedgerService;
 
+    // Replication role of this instance; a follower only serves reads.
+    @Value("${ledger.replication.role:standalone}")
+    private String replicationRole;
+
     // Autowiring the bank ledger service through the constructor for dependency injection
     @Autowired
     public BankLedgerController(BankLedgerService bankLedgerService) {
@@ -25,12 +31,15 @@ public class BankLedgerController {
      */
     @PutMapping("/load")
     public ResponseEntity<?> loadFunds(@RequestBody BankLedgerRequest request) {
+        if (isReadOnly()) {
+            return readOnlyResponse();
+        }
         // Capture the current timestamp when the request is made
-        LocalDateTime timestamp = LocalDateTime.now();
+        long timestamp = LedgerClock.currentTimeMicros();
         // Delegate to the service layer to calculate the new balance after loading funds
         double newBalance = bankLedgerService.loadFunds(request.getAccountId(), request.getAmount(), timestamp);
         // Return the updated account information in the response body
-        return ResponseEntity.ok("{\"accountId\": \"" + request.getAccountId() + "\", \"newBalance\": " + newBalance + ", \"timestamp\": \"" + timestamp + "\"}");
+        return balanceResponse(HttpStatus.OK, request.getAccountId(), newBalance, timestamp);
     }
 
     /**
@@ -39,12 +48,16 @@ public class BankLedgerController {
      */
     @PutMapping("/authorization")
     public ResponseEntity<?> authorizeTransaction(@RequestBody BankLedgerRequest request) {
+        if (isReadOnly()) {
+            return readOnlyResponse();
+        }
         // Capture the current timestamp when the request is made
-        LocalDateTime timestamp = LocalDateTime.now();
+        long timestamp = LedgerClock.currentTimeMicros();
         // Delegate to the service layer to process the transaction and calculate the new balance
         double newBalance = bankLedgerService.authorizeTransaction(request.getAccountId(), request.getAmount(), timestamp);
         // Determine response status based on whether the transaction was authorized successfully
-        return ResponseEntity.status(newBalance != -1 ? 201 : 402).body("{\"accountId\": \"" + request.getAccountId() + "\", \"newBalance\": " + newBalance + ", \"timestamp\": \"" + timestamp + "\"}");
+        return balanceResponse(newBalance != -1 ? HttpStatus.CREATED : HttpStatus.PAYMENT_REQUIRED,
+                request.getAccountId(), newBalance, timestamp);
     }
 
     /**
@@ -56,6 +69,27 @@ public class BankLedgerController {
         return ResponseEntity.ok("Welcome to the Bank Ledger Application!");
     }
 
+    // Builds the JSON response shared by the load and authorization endpoints; the timestamp stays an ISO-8601 local
+    // date-time string. One presized builder, its String and the ResponseEntity are all it allocates: the shared empty
+    // headers stand in for the HttpHeaders the ResponseEntity builders would create for every response.
+    private static ResponseEntity<?> balanceResponse(HttpStatus status, String accountId, double newBalance, long timestamp) {
+        StringBuilder body = new StringBuilder(96 + accountId.length());
+        body.append("{\"accountId\": \"").append(accountId).append("\", \"newBalance\": ").append(newBalance)
+                .append(", \"timestamp\": \"");
+        LedgerClock.appendLocalDateTime(body, timestamp).append("\"}");
+        return new ResponseEntity<>(body.toString(), HttpHeaders.EMPTY, status);
+    }
+
+    // A replication follower applies the leader's events and must not accept writes of its own.
+    private boolean isReadOnly() {
+        return "follower".equals(replicationRole);
+    }
+
+    // 403 response returned by write endpoints on a read-only replica.
+    private ResponseEntity<?> readOnlyResponse() {
+        return ResponseEntity.status(403).body("{\"message\": \"This instance is a read-only replica\"}");
+    }
+
 }
 
 
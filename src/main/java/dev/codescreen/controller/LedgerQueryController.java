@@ -0,0 +1,48 @@
+package dev.codescreen.controller;
+
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Read-only queries over the ledger, served by every instance including replication followers.
+ */
+@RestController
+public class LedgerQueryController {
+    private final BalanceService balanceService; // Cached balance projection.
+    private final EventStore eventStore; // Transaction history.
+
+    // Autowiring the balance and event stores through the constructor for dependency injection
+    @Autowired
+    public LedgerQueryController(BalanceService balanceService, EventStore eventStore) {
+        this.balanceService = balanceService;
+        this.eventStore = eventStore;
+    }
+
+    /**
+     * Endpoint to read the current balance of an account.
+     * @return ResponseEntity with JSON containing the account ID and its balance.
+     */
+    @GetMapping("/balance/{accountId}")
+    public ResponseEntity<?> getBalance(@PathVariable String accountId) {
+        double balance = balanceService.getBalance(accountId);
+        return ResponseEntity.ok("{\"accountId\": \"" + accountId + "\", \"balance\": " + balance + "}");
+    }
+
+    /**
+     * Endpoint to read the transaction history of an account.
+     * @return ResponseEntity with the account's events in the order they were recorded.
+     */
+    @GetMapping("/history/{accountId}")
+    public ResponseEntity<List<TransactionEvent>> getHistory(@PathVariable String accountId) {
+        // The event store returns a snapshot, so concurrent appends cannot break serialization.
+        return ResponseEntity.ok(eventStore.getEvents(accountId));
+    }
+}
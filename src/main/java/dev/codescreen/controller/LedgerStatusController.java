@@ -0,0 +1,87 @@
+package dev.codescreen.controller;
+
+import dev.codescreen.replication.ReplicationFollower;
+import dev.codescreen.replication.ReplicationLeader;
+import dev.codescreen.repository.JdbcLedgerRepository;
+import dev.codescreen.service.ReconciliationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Monitoring endpoints publishing the counters of the ledger's background services.
+ */
+@RestController
+public class LedgerStatusController {
+    private final ReconciliationService reconciliationService; // Background balance verifier.
+    private final ObjectProvider<ReplicationLeader> leader; // Present only when this instance is the leader.
+    private final ObjectProvider<ReplicationFollower> follower; // Present only when this instance is a follower.
+    private final ObjectProvider<JdbcLedgerRepository> repository; // Present only when persistence is enabled.
+
+    // Autowiring the monitored services through the constructor for dependency injection
+    @Autowired
+    public LedgerStatusController(ReconciliationService reconciliationService,
+                                  ObjectProvider<ReplicationLeader> leader, ObjectProvider<ReplicationFollower> follower,
+                                  ObjectProvider<JdbcLedgerRepository> repository) {
+        this.reconciliationService = reconciliationService;
+        this.leader = leader;
+        this.follower = follower;
+        this.repository = repository;
+    }
+
+    /**
+     * Endpoint to read the counters of the background reconciliation.
+     * @return ResponseEntity with JSON containing the passes run, accounts checked, divergences confirmed
+     * and the duration of the last pass in microseconds.
+     */
+    @GetMapping("/reconciliation")
+    public ResponseEntity<?> getReconciliationStatus() {
+        return ResponseEntity.ok("{\"passes\": " + reconciliationService.getPasses()
+                + ", \"accountsChecked\": " + reconciliationService.getAccountsChecked()
+                + ", \"divergences\": " + reconciliationService.getDivergences()
+                + ", \"lastPassMicros\": " + reconciliationService.getLastPassNanos() / 1000 + "}");
+    }
+
+    /**
+     * Endpoint to read the replication state of this instance.
+     * @return ResponseEntity with JSON containing the role and, for a leader or follower, its sequence numbers and lag
+     * in events and milliseconds; for a leader the lag is that of its slowest follower.
+     */
+    @GetMapping("/replication")
+    public ResponseEntity<?> getReplicationStatus() {
+        ReplicationLeader replicationLeader = leader.getIfAvailable();
+        if (replicationLeader != null) {
+            return ResponseEntity.ok("{\"role\": \"leader\", \"headSequence\": " + replicationLeader.getHeadSequence()
+                    + ", \"followers\": " + replicationLeader.getFollowerCount()
+                    + ", \"lagEvents\": " + replicationLeader.getLagEvents()
+                    + ", \"lagMillis\": " + replicationLeader.getLagMillis() + "}");
+        }
+        ReplicationFollower replicationFollower = follower.getIfAvailable();
+        if (replicationFollower != null) {
+            return ResponseEntity.ok("{\"role\": \"follower\", \"appliedSequence\": " + replicationFollower.getAppliedSequence()
+                    + ", \"lagEvents\": " + replicationFollower.getLagEvents()
+                    + ", \"lagMillis\": " + replicationFollower.getLagMillis() + "}");
+        }
+        return ResponseEntity.ok("{\"role\": \"standalone\"}");
+    }
+
+    /**
+     * Endpoint to read the counters of the write-behind persistence.
+     * @return ResponseEntity with JSON telling whether persistence is enabled and, if so, the queued events and the
+     * queue's capacity, the events and batches written and the events dropped because the queue was full.
+     */
+    @GetMapping("/persistence")
+    public ResponseEntity<?> getPersistenceStatus() {
+        JdbcLedgerRepository jdbcRepository = repository.getIfAvailable();
+        if (jdbcRepository == null) {
+            return ResponseEntity.ok("{\"enabled\": false}");
+        }
+        return ResponseEntity.ok("{\"enabled\": true, \"queueDepth\": " + jdbcRepository.getQueueDepth()
+                + ", \"queueCapacity\": " + jdbcRepository.getQueueCapacity()
+                + ", \"eventsWritten\": " + jdbcRepository.getEventsWritten()
+                + ", \"batchesWritten\": " + jdbcRepository.getBatchesWritten()
+                + ", \"eventsDropped\": " + jdbcRepository.getEventsDropped() + "}");
+    }
+}
@@ -0,0 +1,227 @@
+package dev.codescreen.loadgen;
+
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import dev.codescreen.service.impl.BankLedgerServiceImpl;
+import dev.codescreen.util.LedgerClock;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A ledger the load generator can drive: either the running HTTP service or an in-process BankLedgerService.
+ * The asynchronous variants let an open-loop generator issue requests without waiting for earlier ones; by default they
+ * run the blocking call on the given executor, and the HTTP target sends them with the client's own async support.
+ */
+public interface LedgerTarget {
+
+    /**
+     * Loads funds into an account.
+     * @param userId The account to credit.
+     * @param amount The amount to load.
+     * @return The balance reported after the load.
+     * @throws IOException If the request fails.
+     */
+    double load(String userId, double amount) throws IOException;
+
+    /**
+     * Attempts to authorize a debit against an account.
+     * @param userId The account to debit.
+     * @param amount The amount to authorize.
+     * @return The balance reported after the attempt; unchanged if the authorization was declined.
+     * @throws IOException If the request fails.
+     */
+    double authorize(String userId, double amount) throws IOException;
+
+    /**
+     * Loads funds into an account without blocking the caller.
+     * @param userId The account to credit.
+     * @param amount The amount to load.
+     * @param executor Executor to run a blocking request on.
+     * @return A future of the balance reported after the load, failing with a CompletionException if the request fails.
+     */
+    default CompletableFuture<Double> loadAsync(String userId, double amount, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return load(userId, amount);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Attempts to authorize a debit against an account without blocking the caller.
+     * @param userId The account to debit.
+     * @param amount The amount to authorize.
+     * @param executor Executor to run a blocking request on.
+     * @return A future of the balance reported after the attempt, failing with a CompletionException if the request fails.
+     */
+    default CompletableFuture<Double> authorizeAsync(String userId, double amount, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return authorize(userId, amount);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Reads the current balance of an account; only used outside of timed requests.
+     * @param userId The account to read.
+     * @return The current balance.
+     * @throws IOException If the request fails.
+     */
+    double balance(String userId) throws IOException;
+
+    /**
+     * Drives a fresh in-process BankLedgerServiceImpl, measuring the service layer without HTTP.
+     */
+    class Direct implements LedgerTarget {
+        private final EventStore eventStore = new EventStore();
+        private final BankLedgerServiceImpl service = new BankLedgerServiceImpl(eventStore, new BalanceService());
+
+        @Override
+        public double load(String userId, double amount) {
+            return service.loadFunds(userId, amount, LedgerClock.currentTimeMicros());
+        }
+
+        @Override
+        public double authorize(String userId, double amount) {
+            return service.authorizeTransaction(userId, amount, LedgerClock.currentTimeMicros());
+        }
+
+        @Override
+        public double balance(String userId) {
+            return eventStore.getBalance(userId);
+        }
+    }
+
+    /**
+     * Drives a running service over HTTP, e.g. {@code http://localhost:8080}.
+     */
+    class Http implements LedgerTarget {
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final String baseUrl;
+
+        public Http(String baseUrl) {
+            this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        }
+
+        @Override
+        public double load(String userId, double amount) throws IOException {
+            return newBalance(send(put("/load", userId, amount)));
+        }
+
+        @Override
+        public double authorize(String userId, double amount) throws IOException {
+            return newBalance(send(put("/authorization", userId, amount)));
+        }
+
+        // Sent with the client's own executor; the given one is not needed.
+        @Override
+        public CompletableFuture<Double> loadAsync(String userId, double amount, Executor executor) {
+            return sendAsync(put("/load", userId, amount));
+        }
+
+        @Override
+        public CompletableFuture<Double> authorizeAsync(String userId, double amount, Executor executor) {
+            return sendAsync(put("/authorization", userId, amount));
+        }
+
+        @Override
+        public double balance(String userId) throws IOException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/balance/" + pathSegment(userId))).GET().build();
+            return numberField(send(request), "balance");
+        }
+
+        private HttpRequest put(String path, String userId, double amount) {
+            String body = "{\"accountId\":" + jsonString(userId) + ",\"amount\":" + amount + "}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private String send(HttpRequest request) throws IOException {
+            try {
+                return body(client.send(request, HttpResponse.BodyHandlers.ofString()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " + request.uri(), e);
+            }
+        }
+
+        private CompletableFuture<Double> sendAsync(HttpRequest request) {
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+                try {
+                    return newBalance(body(response));
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+
+        // Returns the body of a response, failing on any status other than success or a declined authorization.
+        private static String body(HttpResponse<String> response) throws IOException {
+            // 402 is how the controller reports a declined authorization.
+            if (response.statusCode() / 100 != 2 && response.statusCode() != 402) {
+                throw new IOException("HTTP " + response.statusCode() + " from " + response.uri() + ": " + response.body());
+            }
+            return response.body();
+        }
+
+        private static double newBalance(String json) throws IOException {
+            return numberField(json, "newBalance");
+        }
+
+        // Percent-encodes an account ID for use as one URL path segment; URLEncoder targets form data, where a space is '+'.
+        private static String pathSegment(String userId) {
+            return URLEncoder.encode(userId, StandardCharsets.UTF_8).replace("+", "%20");
+        }
+
+        // Quotes an account ID as a JSON string, escaping quotes, backslashes and control characters.
+        private static String jsonString(String userId) {
+            StringBuilder out = new StringBuilder(userId.length() + 2).append('"');
+            for (int i = 0; i < userId.length(); i++) {
+                char c = userId.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.append('"').toString();
+        }
+
+        // Extracts a numeric field from the service's flat JSON responses.
+        private static double numberField(String json, String field) throws IOException {
+            String key = "\"" + field + "\":";
+            int start = json.indexOf(key);
+            if (start < 0) {
+                throw new IOException("Missing " + field + " in response: " + json);
+            }
+            start += key.length();
+            int end = start;
+            while (end < json.length() && ",}".indexOf(json.charAt(end)) < 0) {
+                end++;
+            }
+            try {
+                return Double.parseDouble(json.substring(start, end).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid " + field + " in response: " + json, e);
+            }
+        }
+    }
+}
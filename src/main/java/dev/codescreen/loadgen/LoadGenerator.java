@@ -0,0 +1,489 @@
+package dev.codescreen.loadgen;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for the ledger.
+ * It either replays a recorded script in order, verifying the response code and balance of every line, or generates a
+ * synthetic workload whose accounts follow a Zipfian distribution.
+ * With a rate, requests are paced as an open loop by default: a scheduler issues every request at its scheduled time
+ * whether or not earlier ones have completed, HTTP requests asynchronously and in-process ones on a pool of sender
+ * threads, and latency is recorded when each request completes, measured from its scheduled time. A replay still
+ * sends the lines of one account one after another, so their balances can be verified; accounts do not wait for
+ * each other. The closed loop is kept as an option: each sending thread sends synchronously, one request at a time,
+ * and a request delayed behind a slow response is sent as soon as that response arrives. Its latency is also measured
+ * from the scheduled start (corrected for coordinated omission), but unlike the open loop it cannot offer more load
+ * than the system completes. A rate of 0 runs the closed loop, sending each request as soon as the previous response
+ * arrives.
+ *
+ * <p>Run from the packaged jar, for example:
+ * {@code java -cp target/CodeScreen_iwaly9vn-1.0.0.jar -Dloader.main=dev.codescreen.loadgen.LoadGenerator
+ * org.springframework.boot.loader.launch.PropertiesLauncher --target=http://localhost:8080 --script=src/test/resources/sample_tests}
+ * <br>Options: {@code --target=direct|<base url>}, {@code --script=<file>} (replay) or synthetic mode with
+ * {@code --ops}, {@code --accounts}, {@code --zipf}, {@code --load-ratio}, {@code --seed};
+ * {@code --rate=<requests per second>}, {@code --loop=open|closed} and {@code --threads} (sending threads of the closed
+ * loop, sender pool of the open loop) apply to both.
+ */
+public class LoadGenerator {
+    // Balances closer than half a cent are considered equal.
+    private static final double TOLERANCE = 0.005;
+
+    private final LedgerTarget target; // The ledger under load.
+
+    /**
+     * How requests are paced against their schedule.
+     */
+    public enum Pacing {
+        // Every request is issued at its scheduled time, regardless of completions.
+        OPEN_LOOP,
+        // Each sending thread waits for a response before sending its next request.
+        CLOSED_LOOP
+    }
+
+    /**
+     * Constructs a generator driving the given target.
+     * @param target The in-process service or HTTP endpoint to drive.
+     */
+    public LoadGenerator(LedgerTarget target) {
+        this.target = target;
+    }
+
+    /**
+     * Replays a script with the default pacing for the rate: an open loop with one sender thread if a rate is given,
+     * otherwise a closed loop.
+     *
+     * @param script The parsed script.
+     * @param ratePerSecond Scheduled requests per second, or 0 for no schedule.
+     * @return The report, including every mismatch and malformed line.
+     * @throws InterruptedException If interrupted while waiting for outstanding requests.
+     */
+    public LoadReport replay(ReplayScript script, double ratePerSecond) throws InterruptedException {
+        return replay(script, ratePerSecond, defaultPacing(ratePerSecond), 1);
+    }
+
+    /**
+     * Replays a script and checks each response against the expected code and balance.
+     * Whether an authorization was approved is derived from the balance: a declined one leaves it unchanged.
+     * The closed loop sends the lines in order from the calling thread; the open loop issues them on schedule, with the
+     * lines of each account chained so they still reach the target in script order.
+     *
+     * @param script The parsed script.
+     * @param ratePerSecond Scheduled requests per second, or 0 for no schedule.
+     * @param pacing How requests are paced; the open loop needs a rate.
+     * @param senders Sender threads for in-process requests in the open loop.
+     * @return The report, including every mismatch and malformed line, in script order.
+     * @throws IllegalArgumentException If an open loop is requested without a rate.
+     * @throws InterruptedException If interrupted while waiting for outstanding requests.
+     */
+    public LoadReport replay(ReplayScript script, double ratePerSecond, Pacing pacing, int senders)
+            throws InterruptedException {
+        checkPacing(ratePerSecond, pacing);
+        // Starting balances are read before the clock starts so they do not distort the schedule.
+        Map<String, Double> balances = new HashMap<>();
+        for (ReplayScript.Step step : script.getSteps()) {
+            if (!balances.containsKey(step.getUserId())) {
+                try {
+                    balances.put(step.getUserId(), target.balance(step.getUserId()));
+                } catch (IOException | RuntimeException e) {
+                    balances.put(step.getUserId(), 0.0);
+                }
+            }
+        }
+        return pacing == Pacing.OPEN_LOOP ? replayOpenLoop(script, ratePerSecond, senders, balances)
+                : replayClosedLoop(script, ratePerSecond, balances);
+    }
+
+    private LoadReport replayClosedLoop(ReplayScript script, double ratePerSecond, Map<String, Double> balances) {
+        List<ReplayScript.Step> steps = script.getSteps();
+        List<String> mismatches = new ArrayList<>();
+        long[] corrected = new long[steps.size()];
+        long[] service = new long[steps.size()];
+        int completed = 0;
+        long errors = 0;
+        long verified = 0;
+
+        long intervalNanos = intervalNanos(ratePerSecond);
+        long start = System.nanoTime();
+        for (int i = 0; i < steps.size(); i++) {
+            ReplayScript.Step step = steps.get(i);
+            long intended = intervalNanos > 0 ? awaitSchedule(start + i * intervalNanos) : System.nanoTime();
+            long sent = System.nanoTime();
+            double before = balances.get(step.getUserId());
+            double balance;
+            try {
+                balance = step.isLoad() ? target.load(step.getUserId(), step.getAmount())
+                        : target.authorize(step.getUserId(), step.getAmount());
+            } catch (IOException | RuntimeException e) {
+                // A bad line, e.g. an id the target rejects, fails only itself rather than the whole run.
+                errors++;
+                mismatches.add("line " + step.getLineNumber() + " (msgId " + step.getMsgId() + "): " + e.getMessage());
+                continue;
+            }
+            long end = System.nanoTime();
+            corrected[completed] = end - intended;
+            service[completed] = end - sent;
+            completed++;
+
+            balances.put(step.getUserId(), balance);
+            String mismatch = verify(step, before, balance);
+            if (mismatch == null) {
+                verified++;
+            } else {
+                mismatches.add(mismatch);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(elapsed, errors, Arrays.copyOf(corrected, completed), Arrays.copyOf(service, completed),
+                verified, mismatches, script.getMalformed());
+    }
+
+    private LoadReport replayOpenLoop(ReplayScript script, double ratePerSecond, int senders,
+                                      Map<String, Double> balances) throws InterruptedException {
+        List<ReplayScript.Step> steps = script.getSteps();
+        // Written by whichever thread completes a line, read after every future has completed.
+        long[] corrected = new long[steps.size()];
+        long[] service = new long[steps.size()];
+        boolean[] completed = new boolean[steps.size()];
+        boolean[] failed = new boolean[steps.size()];
+        String[] mismatches = new String[steps.size()];
+        CompletableFuture<?>[] outstanding = new CompletableFuture<?>[steps.size()];
+        // The balance after the latest line issued for each account; the next line of the account starts from it.
+        Map<String, CompletableFuture<Double>> chains = new HashMap<>();
+
+        ExecutorService pool = newSenderPool(senders);
+        long intervalNanos = intervalNanos(ratePerSecond);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < steps.size(); i++) {
+                final int line = i;
+                ReplayScript.Step step = steps.get(i);
+                long intended = awaitSchedule(start + i * intervalNanos);
+                CompletableFuture<Double> previous = chains.get(step.getUserId());
+                if (previous == null) {
+                    previous = CompletableFuture.completedFuture(balances.get(step.getUserId()));
+                }
+                CompletableFuture<Double> next = previous.thenCompose(before -> {
+                    long sent = System.nanoTime();
+                    CompletableFuture<Double> response = step.isLoad() ? target.loadAsync(step.getUserId(), step.getAmount(), pool)
+                            : target.authorizeAsync(step.getUserId(), step.getAmount(), pool);
+                    return response.handle((balance, failure) -> {
+                        long end = System.nanoTime();
+                        if (failure != null) {
+                            // A bad line fails only itself; the account's next line starts from the last known balance.
+                            failed[line] = true;
+                            mismatches[line] = "line " + step.getLineNumber() + " (msgId " + step.getMsgId() + "): "
+                                    + unwrap(failure).getMessage();
+                            return before;
+                        }
+                        corrected[line] = end - intended;
+                        service[line] = end - sent;
+                        completed[line] = true;
+                        mismatches[line] = verify(step, before, balance);
+                        return balance;
+                    });
+                });
+                chains.put(step.getUserId(), next);
+                outstanding[i] = next;
+            }
+            awaitAll(outstanding);
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<String> reported = new ArrayList<>();
+        long errors = 0;
+        long verified = 0;
+        int count = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            if (failed[i]) {
+                errors++;
+            } else if (mismatches[i] == null) {
+                verified++;
+            }
+            if (mismatches[i] != null) {
+                reported.add(mismatches[i]);
+            }
+            if (completed[i]) {
+                corrected[count] = corrected[i];
+                service[count] = service[i];
+                count++;
+            }
+        }
+        return new LoadReport(elapsed, errors, Arrays.copyOf(corrected, count), Arrays.copyOf(service, count),
+                verified, reported, script.getMalformed());
+    }
+
+    // Checks a response against the script line; returns null if it matches, otherwise a description of the mismatch.
+    private static String verify(ReplayScript.Step step, double before, double balance) {
+        boolean approved = step.isLoad() || Math.abs(balance - (before - step.getAmount())) < TOLERANCE;
+        if (approved == step.isExpectedApproved() && Math.abs(balance - step.getExpectedBalance()) < TOLERANCE) {
+            return null;
+        }
+        return String.format("line %d (msgId %s): expected %s %.2f, got %s %.2f",
+                step.getLineNumber(), step.getMsgId(), step.getExpectedCode(), step.getExpectedBalance(),
+                approved ? "APPROVED" : "DECLINED", balance);
+    }
+
+    /**
+     * Runs a synthetic workload with the default pacing for the rate: an open loop if a rate is given,
+     * otherwise a closed loop.
+     * @see #synthetic(int, int, double, double, int, double, long, Pacing)
+     */
+    public LoadReport synthetic(int operations, int accounts, double zipfExponent, double loadFraction,
+                                int threads, double ratePerSecond, long seed) throws InterruptedException {
+        return synthetic(operations, accounts, zipfExponent, loadFraction, threads, ratePerSecond, seed,
+                defaultPacing(ratePerSecond));
+    }
+
+    /**
+     * Runs a synthetic workload of loads and authorizations over Zipf-distributed accounts.
+     * In the closed loop each thread owns an evenly interleaved share of the schedule and a seeded random source,
+     * so the sequence of requests is reproducible for a given seed and thread count. In the open loop a single
+     * scheduler draws every request from one seeded random source and the threads only send them.
+     *
+     * @param operations Total number of requests.
+     * @param accounts Number of distinct accounts.
+     * @param zipfExponent Skew of account popularity; 0 is uniform.
+     * @param loadFraction Fraction of requests that are loads; the rest are authorizations.
+     * @param threads Number of sending threads in the closed loop, or of sender threads for in-process requests
+     *                in the open loop.
+     * @param ratePerSecond Scheduled requests per second across all threads, or 0 for no schedule.
+     * @param seed Seed for the random sources.
+     * @param pacing How requests are paced; the open loop needs a rate.
+     * @return The report.
+     * @throws IllegalArgumentException If an open loop is requested without a rate.
+     * @throws InterruptedException If interrupted while waiting for the sending threads or outstanding requests.
+     */
+    public LoadReport synthetic(int operations, int accounts, double zipfExponent, double loadFraction,
+                                int threads, double ratePerSecond, long seed, Pacing pacing) throws InterruptedException {
+        checkPacing(ratePerSecond, pacing);
+        ZipfianGenerator zipf = new ZipfianGenerator(accounts, zipfExponent);
+        String[] userIds = new String[accounts];
+        for (int k = 0; k < accounts; k++) {
+            userIds[k] = "user-" + k;
+        }
+        if (pacing == Pacing.OPEN_LOOP) {
+            return syntheticOpenLoop(operations, zipf, userIds, loadFraction, threads, ratePerSecond, seed);
+        }
+        long intervalNanos = intervalNanos(ratePerSecond);
+        long[][] corrected = new long[threads][];
+        long[][] service = new long[threads][];
+        AtomicLong errors = new AtomicLong();
+        // Give every thread time to start before the first scheduled request.
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            final int worker = w;
+            final int share = operations / threads + (worker < operations % threads ? 1 : 0);
+            workers[w] = new Thread(() -> {
+                Random random = new Random(seed + worker);
+                long[] workerCorrected = new long[share];
+                long[] workerService = new long[share];
+                int completed = 0;
+                awaitSchedule(start);
+                for (int k = 0; k < share; k++) {
+                    String userId = userIds[zipf.next(random)];
+                    boolean load = random.nextDouble() < loadFraction;
+                    double amount = (1 + random.nextInt(10_000)) / 100.0;
+                    long intended = intervalNanos > 0
+                            ? awaitSchedule(start + ((long) k * threads + worker) * intervalNanos) : System.nanoTime();
+                    long sent = System.nanoTime();
+                    try {
+                        if (load) {
+                            target.load(userId, amount);
+                        } else {
+                            target.authorize(userId, amount);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    long end = System.nanoTime();
+                    workerCorrected[completed] = end - intended;
+                    workerService[completed] = end - sent;
+                    completed++;
+                }
+                corrected[worker] = Arrays.copyOf(workerCorrected, completed);
+                service[worker] = Arrays.copyOf(workerService, completed);
+            }, "loadgen-" + w);
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(elapsed, errors.get(), concat(corrected), concat(service),
+                0, new ArrayList<String>(), new ArrayList<String>());
+    }
+
+    private LoadReport syntheticOpenLoop(int operations, ZipfianGenerator zipf, String[] userIds, double loadFraction,
+                                         int senders, double ratePerSecond, long seed) throws InterruptedException {
+        // Written by whichever thread completes a request, read after every future has completed.
+        long[] corrected = new long[operations];
+        long[] service = new long[operations];
+        boolean[] completed = new boolean[operations];
+        CompletableFuture<?>[] outstanding = new CompletableFuture<?>[operations];
+        AtomicLong errors = new AtomicLong();
+        Random random = new Random(seed);
+
+        ExecutorService pool = newSenderPool(senders);
+        long intervalNanos = intervalNanos(ratePerSecond);
+        long start = System.nanoTime();
+        try {
+            for (int k = 0; k < operations; k++) {
+                final int request = k;
+                String userId = userIds[zipf.next(random)];
+                boolean load = random.nextDouble() < loadFraction;
+                double amount = (1 + random.nextInt(10_000)) / 100.0;
+                long intended = awaitSchedule(start + k * intervalNanos);
+                long sent = System.nanoTime();
+                CompletableFuture<Double> response = load ? target.loadAsync(userId, amount, pool)
+                        : target.authorizeAsync(userId, amount, pool);
+                outstanding[k] = response.whenComplete((balance, failure) -> {
+                    long end = System.nanoTime();
+                    if (failure != null) {
+                        errors.incrementAndGet();
+                        return;
+                    }
+                    corrected[request] = end - intended;
+                    service[request] = end - sent;
+                    completed[request] = true;
+                });
+            }
+            awaitAll(outstanding);
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int count = 0;
+        for (int k = 0; k < operations; k++) {
+            if (completed[k]) {
+                corrected[count] = corrected[k];
+                service[count] = service[k];
+                count++;
+            }
+        }
+        return new LoadReport(elapsed, errors.get(), Arrays.copyOf(corrected, count), Arrays.copyOf(service, count),
+                0, new ArrayList<String>(), new ArrayList<String>());
+    }
+
+    private static Pacing defaultPacing(double ratePerSecond) {
+        return ratePerSecond > 0 ? Pacing.OPEN_LOOP : Pacing.CLOSED_LOOP;
+    }
+
+    private static void checkPacing(double ratePerSecond, Pacing pacing) {
+        if (pacing == Pacing.OPEN_LOOP && !(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("An open loop needs a positive rate but was " + ratePerSecond);
+        }
+    }
+
+    // Daemon threads, so a request that never completes cannot keep the JVM alive.
+    private static ExecutorService newSenderPool(int senders) {
+        return Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "loadgen-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Waits for every request to complete; their failures are already recorded.
+    private static void awaitAll(CompletableFuture<?>[] futures) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(futures).get();
+        } catch (ExecutionException e) {
+            // Unreachable: every future handles its own failure.
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Strips the CompletionException an asynchronous request fails with.
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static long intervalNanos(double ratePerSecond) {
+        return ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+    }
+
+    // Waits until the scheduled time and returns it; if already late, returns immediately.
+    private static long awaitSchedule(long intendedNanos) {
+        long remaining;
+        while ((remaining = intendedNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+        return intendedNanos;
+    }
+
+    private static long[] concat(long[][] parts) {
+        int length = 0;
+        for (long[] part : parts) {
+            length += part.length;
+        }
+        long[] all = new long[length];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, all, offset, part.length);
+            offset += part.length;
+        }
+        return all;
+    }
+
+    /**
+     * Command-line entry point; prints the report and exits with 1 if any request failed or did not match.
+     * @param args Options of the form {@code --name=value}.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        String targetOption = options.getOrDefault("target", "direct");
+        LedgerTarget target = "direct".equals(targetOption) ? new LedgerTarget.Direct() : new LedgerTarget.Http(targetOption);
+        LoadGenerator generator = new LoadGenerator(target);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        String loop = options.getOrDefault("loop", rate > 0 ? "open" : "closed");
+        if (!"open".equals(loop) && !"closed".equals(loop)) {
+            throw new IllegalArgumentException("Expected --loop=open or --loop=closed but got " + loop);
+        }
+        Pacing pacing = "open".equals(loop) ? Pacing.OPEN_LOOP : Pacing.CLOSED_LOOP;
+        int threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+
+        LoadReport report;
+        if (options.containsKey("script")) {
+            report = generator.replay(ReplayScript.load(Paths.get(options.get("script"))), rate, pacing, threads);
+        } else {
+            report = generator.synthetic(
+                    Integer.parseInt(options.getOrDefault("ops", "100000")),
+                    Integer.parseInt(options.getOrDefault("accounts", "10000")),
+                    Double.parseDouble(options.getOrDefault("zipf", "0.99")),
+                    Double.parseDouble(options.getOrDefault("load-ratio", "0.5")),
+                    threads,
+                    rate,
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    pacing);
+        }
+        System.out.print(report.format());
+        System.exit(report.isSuccessful() ? 0 : 1);
+    }
+}
@@ -0,0 +1,125 @@
+package dev.codescreen.loadgen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a load run: throughput, latency percentiles and verification results.
+ * Corrected latency is measured from when each request was scheduled to start under the fixed rate, so time a request
+ * spent waiting behind a slow predecessor counts against the system (coordinated omission correction). Service latency
+ * is measured from when the request was actually sent: in the closed loop when its thread got to it, in the open loop
+ * when it was handed to the target, so it still includes waiting for a free sender thread.
+ */
+public class LoadReport {
+    private final long operations;
+    private final long errors;
+    private final long elapsedNanos;
+    private final long[] correctedLatencies; // Sorted, in nanoseconds.
+    private final long[] serviceLatencies; // Sorted, in nanoseconds.
+    private final long verified;
+    private final List<String> mismatches;
+    private final List<String> malformed;
+
+    LoadReport(long elapsedNanos, long errors, long[] correctedLatencies, long[] serviceLatencies,
+               long verified, List<String> mismatches, List<String> malformed) {
+        this.operations = correctedLatencies.length;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.correctedLatencies = correctedLatencies;
+        this.serviceLatencies = serviceLatencies;
+        this.verified = verified;
+        this.mismatches = Collections.unmodifiableList(new ArrayList<>(mismatches));
+        this.malformed = Collections.unmodifiableList(new ArrayList<>(malformed));
+        Arrays.sort(this.correctedLatencies);
+        Arrays.sort(this.serviceLatencies);
+    }
+
+    // Getters
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getVerified() {
+        return verified;
+    }
+
+    public List<String> getMismatches() {
+        return mismatches;
+    }
+
+    public List<String> getMalformed() {
+        return malformed;
+    }
+
+    /**
+     * Returns the completed operations per second over the whole run.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Returns a coordinated-omission-corrected latency percentile.
+     * @param percentile The percentile, e.g. 99.9.
+     * @return The latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long correctedPercentile(double percentile) {
+        return percentile(correctedLatencies, percentile);
+    }
+
+    /**
+     * Returns a latency percentile measured from the actual send time.
+     * @param percentile The percentile, e.g. 99.9.
+     * @return The latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long servicePercentile(double percentile) {
+        return percentile(serviceLatencies, percentile);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Returns whether every request completed and matched its expected outcome.
+     */
+    public boolean isSuccessful() {
+        return errors == 0 && mismatches.isEmpty() && malformed.isEmpty();
+    }
+
+    /**
+     * Formats the report for the console.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("operations: %d, errors: %d, elapsed: %.3f s, throughput: %.1f ops/s%n",
+                operations, errors, elapsedNanos / 1e9, getThroughput()));
+        out.append(String.format("%-10s %12s %12s%n", "percentile", "corrected", "service"));
+        for (double p : new double[]{50, 90, 99, 99.9, 100}) {
+            out.append(String.format("%-10s %9.1f us %9.1f us%n", p == 100 ? "max" : p == Math.rint(p) ? "p" + (int) p : "p" + p,
+                    correctedPercentile(p) / 1e3, servicePercentile(p) / 1e3));
+        }
+        if (verified > 0 || !mismatches.isEmpty() || !malformed.isEmpty()) {
+            out.append(String.format("verified: %d, mismatches: %d, malformed lines: %d%n",
+                    verified, mismatches.size(), malformed.size()));
+            for (String mismatch : mismatches) {
+                out.append("  mismatch ").append(mismatch).append(System.lineSeparator());
+            }
+            for (String line : malformed) {
+                out.append("  malformed line ").append(line).append(System.lineSeparator());
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package dev.codescreen.loadgen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A recorded transaction script, one request per line:
+ * {@code action,msgId,userId,debitOrCredit,amount,responseCode,balance}.
+ * The first line is a header. Lines that do not have all seven fields are kept as malformed so the
+ * replay report can list them instead of silently dropping them.
+ */
+public class ReplayScript {
+    private final List<Step> steps;
+    private final List<String> malformed;
+
+    private ReplayScript(List<Step> steps, List<String> malformed) {
+        this.steps = steps;
+        this.malformed = malformed;
+    }
+
+    /**
+     * Reads a script from a file.
+     * @param path The script file.
+     * @return The parsed script.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ReplayScript load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses a script, skipping the header line and blank lines.
+     * @param reader Source of the script text.
+     * @return The parsed script.
+     * @throws IOException If the source cannot be read.
+     */
+    public static ReplayScript parse(Reader reader) throws IOException {
+        List<Step> steps = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line = lines.readLine(); // Header.
+        int lineNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 7) {
+                malformed.add(lineNumber + ": " + line);
+                continue;
+            }
+            try {
+                steps.add(new Step(lineNumber, fields[0].trim(), fields[1].trim(), fields[2].trim(),
+                        Double.parseDouble(fields[4].trim()), fields[5].trim(), Double.parseDouble(fields[6].trim())));
+            } catch (NumberFormatException e) {
+                malformed.add(lineNumber + ": " + line);
+            }
+        }
+        return new ReplayScript(Collections.unmodifiableList(steps), Collections.unmodifiableList(malformed));
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public List<String> getMalformed() {
+        return malformed;
+    }
+
+    /**
+     * One request of the script with its expected outcome.
+     */
+    public static class Step {
+        private final int lineNumber;
+        private final String action; // "LOAD" or "AUTHORIZATION".
+        private final String msgId;
+        private final String userId;
+        private final double amount;
+        private final String expectedCode; // "APPROVED" or "DECLINED"/"DENIED".
+        private final double expectedBalance;
+
+        Step(int lineNumber, String action, String msgId, String userId, double amount, String expectedCode, double expectedBalance) {
+            this.lineNumber = lineNumber;
+            this.action = action;
+            this.msgId = msgId;
+            this.userId = userId;
+            this.amount = amount;
+            this.expectedCode = expectedCode;
+            this.expectedBalance = expectedBalance;
+        }
+
+        // Getters
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public boolean isLoad() {
+            return "LOAD".equalsIgnoreCase(action);
+        }
+
+        public String getMsgId() {
+            return msgId;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        /**
+         * Returns whether the script expects the request to be approved; DECLINED and DENIED both mean no.
+         */
+        public boolean isExpectedApproved() {
+            return "APPROVED".equalsIgnoreCase(expectedCode);
+        }
+
+        public String getExpectedCode() {
+            return expectedCode;
+        }
+
+        public double getExpectedBalance() {
+            return expectedBalance;
+        }
+    }
+}
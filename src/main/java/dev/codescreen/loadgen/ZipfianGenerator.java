@@ -0,0 +1,40 @@
+package dev.codescreen.loadgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws account indexes in [0, n) with Zipfian skew: index k is chosen with probability proportional to 1 / (k + 1)^s.
+ * The cumulative distribution is computed once, and each draw is a binary search over it.
+ */
+public class ZipfianGenerator {
+    private final double[] cumulative;
+
+    /**
+     * Builds the distribution.
+     * @param n Number of distinct items.
+     * @param exponent Skew; 0 is uniform, around 1 is typical of real account activity.
+     */
+    public ZipfianGenerator(int n, double exponent) {
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    /**
+     * Draws the next index.
+     * @param random Source of randomness; a seeded Random makes the sequence reproducible.
+     * @return An index in [0, n), with small indexes the most frequent.
+     */
+    public int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        index = index >= 0 ? index : -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+}
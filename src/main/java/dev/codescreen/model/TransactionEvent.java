@@ -1,14 +1,21 @@
 package dev.codescreen.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dev.codescreen.util.LedgerClock;
+
 import java.time.LocalDateTime;
+import java.util.Objects;
 
-public class TransactionEvent {
-    private String accountId;
-    private double amount;
-    private String type; // "load" or "authorization"
-    private LocalDateTime timestamp;
-    private boolean success;
-    private double newBalance;
+/**
+ * Immutable snapshot of one recorded transaction; equal events have equal fields.
+ */
+public final class TransactionEvent {
+    private final String accountId;
+    private final double amount;
+    private final String type; // "load" or "authorization"
+    private final long timestampMicros; // Microseconds since the epoch.
+    private final boolean success;
+    private final double newBalance;
 
     /**
      * Constructor for creating a new TransactionEvent.
@@ -30,15 +37,30 @@ public class TransactionEvent {
      *                helps in filtering and managing successful versus failed transactions.
      */
     public TransactionEvent(String accountId, double amount, LocalDateTime timestamp, double newBalance, String type, boolean success) {
+        // Set timestamp at the time of event creation
+        this(accountId, amount, (timestamp != null) ? LedgerClock.toEpochMicros(timestamp) : LedgerClock.currentTimeMicros(), newBalance, type, success);
+    }
+
+    /**
+     * Constructor for creating a new TransactionEvent with a timestamp in epoch microseconds.
+     *
+     * @param accountId The unique identifier of the account involved in the transaction.
+     * @param amount The monetary amount involved in the transaction.
+     * @param timestampMicros The time the transaction was recorded, in microseconds since the epoch.
+     * @param newBalance The new balance of the account after the transaction has been processed.
+     * @param type The type of transaction, such as "load" or "authorization".
+     * @param success Indicates whether the transaction was successful.
+     */
+    public TransactionEvent(String accountId, double amount, long timestampMicros, double newBalance, String type, boolean success) {
         this.accountId = accountId;
         this.amount = amount;
         this.type = type;
         this.success = success;
         this.newBalance = newBalance;
-        this.timestamp = (timestamp != null) ? timestamp : LocalDateTime.now(); // Set timestamp at the time of event creation
+        this.timestampMicros = timestampMicros;
     }
 
-    // Getters and setters
+    // Getters
     public String getAccountId() {
         return accountId;
     }
@@ -52,7 +74,13 @@ public class TransactionEvent {
     }
 
     public LocalDateTime getTimeStamp() {
-        return timestamp;
+        return LedgerClock.toLocalDateTime(timestampMicros);
+    }
+
+    // Serialized as timeStamp only, so JSON clients see a single time field.
+    @JsonIgnore
+    public long getTimestampMicros() {
+        return timestampMicros;
     }
 
     public boolean isSuccess() {
@@ -63,20 +91,38 @@ public class TransactionEvent {
         return newBalance;
     }
 
-    public void setNewBalance(double newBalance) {
-        this.newBalance = newBalance;
-    }
-
     @Override
     public String toString() {
         return "TransactionEvent{" +
                 "accountId='" + accountId + '\'' +
                 ", amount=" + amount +
-                ", timestamp=" + timestamp +
+                ", timestamp=" + getTimeStamp() +
                 ", type='" + type + '\'' +
                 ", success=" + success +
                 ", newBalance=" + newBalance +
                 '}';
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionEvent)) {
+            return false;
+        }
+        TransactionEvent other = (TransactionEvent) o;
+        return Double.compare(amount, other.amount) == 0
+                && timestampMicros == other.timestampMicros
+                && success == other.success
+                && Double.compare(newBalance, other.newBalance) == 0
+                && Objects.equals(accountId, other.accountId)
+                && Objects.equals(type, other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, amount, type, timestampMicros, success, newBalance);
+    }
 }
 
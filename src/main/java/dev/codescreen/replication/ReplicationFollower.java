@@ -0,0 +1,230 @@
+package dev.codescreen.replication;
+
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.repository.JdbcLedgerRepository;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Follower side of event replication.
+ * Connects to the leader, asks for the events after the last one it applied, and applies each received event to its own
+ * EventStore and BalanceService. After a disconnect it reconnects and catches up from where it stopped; if the leader
+ * was restarted in the meantime, its local events are discarded and replicated again from the first one.
+ * With persistence enabled the follower resumes after its own restart from the events restored from the database,
+ * and the leader epoch is stored next to them; a resync from scratch also deletes the persisted events.
+ * Enabled with {@code ledger.replication.role=follower}; the controller then rejects writes and only serves reads.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.replication.role", havingValue = "follower")
+public class ReplicationFollower {
+    // Logger for connection state changes.
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private final EventStore eventStore; // Local copy of the leader's events.
+    private final BalanceService balanceService; // Local balance projection.
+    private final JdbcLedgerRepository repository; // Local persistence, or null if disabled.
+
+    @Value("${ledger.replication.leader-host:localhost}")
+    private String leaderHost = "localhost";
+
+    @Value("${ledger.replication.port:9090}")
+    private int leaderPort = 9090;
+
+    @Value("${ledger.replication.reconnect-ms:1000}")
+    private long reconnectMs = 1000;
+
+    // Replication progress, written by the replication thread only.
+    private volatile long leaderEpoch; // Epoch of the leader run the local events came from, 0 before the first connect.
+    private volatile long appliedSeq;
+    private volatile long leaderHeadSeq;
+    private volatile long lagMillis;
+
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread replicator;
+
+    /**
+     * Constructs the follower.
+     * @param eventStore Store the replicated events are added to.
+     * @param balanceService Service the replicated balances are written to.
+     * @param repository Persistence of the local stores if enabled; injecting it here makes it rehydrate the stores
+     *                   before the follower starts.
+     */
+    @Autowired
+    public ReplicationFollower(EventStore eventStore, BalanceService balanceService, Optional<JdbcLedgerRepository> repository) {
+        this.eventStore = eventStore;
+        this.balanceService = balanceService;
+        this.repository = repository.orElse(null);
+    }
+
+    /**
+     * Starts the replication thread, resuming after the events already held locally.
+     * @throws SQLException If the saved leader epoch cannot be read.
+     */
+    @PostConstruct
+    public void start() throws SQLException {
+        appliedSeq = eventStore.getSequence();
+        leaderEpoch = repository != null ? repository.getLeaderEpoch() : 0;
+        running = true;
+        replicator = new Thread(this::replicateLoop, "replication-follower");
+        replicator.setDaemon(true);
+        replicator.start();
+    }
+
+    /**
+     * Stops replicating and closes the connection to the leader.
+     * @throws InterruptedException If interrupted while waiting for the replication thread.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        closeSocket();
+        replicator.interrupt();
+        replicator.join(1000);
+    }
+
+    /**
+     * Drops the current connection; the follower reconnects and resumes from its last applied sequence number.
+     */
+    public void disconnect() {
+        closeSocket();
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close leader connection", e);
+            }
+        }
+    }
+
+    /**
+     * Connects to the leader and applies frames until stopped, reconnecting after failures.
+     */
+    private void replicateLoop() {
+        while (running) {
+            try (Socket connection = new Socket(leaderHost, leaderPort)) {
+                socket = connection;
+                connection.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 64 * 1024));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                out.writeLong(leaderEpoch);
+                out.writeLong(appliedSeq + 1);
+                out.flush();
+                handshake(in.readLong(), in.readLong());
+                logger.info("Connected to leader {}:{}, resuming from sequence {}", leaderHost, leaderPort, appliedSeq + 1);
+
+                while (running) {
+                    apply(ReplicationProtocol.readFrame(in));
+                    out.writeLong(appliedSeq);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.info("Lost connection to leader {}:{}: {}", leaderHost, leaderPort, e.getMessage());
+                }
+            }
+            try {
+                Thread.sleep(reconnectMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Accepts the leader's starting point, discarding the local events if the leader will not continue from them.
+     * @param epoch The epoch of the leader's current run.
+     * @param startSeq The sequence number the leader will stream from.
+     * @throws IOException If the leader proposes a starting point that is neither a continuation nor a full resync,
+     *                     or the local persistence cannot be updated.
+     */
+    private void handshake(long epoch, long startSeq) throws IOException {
+        try {
+            if (startSeq != appliedSeq + 1) {
+                if (startSeq != 1) {
+                    throw new IOException("Leader offered sequence " + startSeq + " but " + (appliedSeq + 1) + " was requested");
+                }
+                logger.warn("Leader {}:{} does not hold the {} events applied here, resyncing from scratch",
+                        leaderHost, leaderPort, appliedSeq);
+                // Empty the tables first: if this fails the local state is untouched and the next attempt starts over.
+                if (repository != null) {
+                    repository.reset();
+                }
+                eventStore.clear();
+                balanceService.clear();
+                appliedSeq = 0;
+                leaderHeadSeq = 0;
+            }
+            if (repository != null && epoch != leaderEpoch) {
+                repository.saveLeaderEpoch(epoch);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to update local persistence", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while resetting local persistence", e);
+        }
+        leaderEpoch = epoch;
+    }
+
+    /**
+     * Applies the events of one frame in sequence order and updates the lag figures.
+     * @param frame The frame received from the leader.
+     * @throws IOException If the frame does not continue from the last applied sequence number.
+     */
+    private void apply(ReplicationProtocol.Frame frame) throws IOException {
+        if (frame.firstSeq != appliedSeq + 1) {
+            throw new IOException("Expected sequence " + (appliedSeq + 1) + " but leader sent " + frame.firstSeq);
+        }
+        long lastTimestampMicros = 0;
+        for (TransactionEvent event : frame.events) {
+            eventStore.addEvent(event);
+            if (event.isSuccess()) {
+                balanceService.updateBalance(event.getAccountId(), event.getNewBalance());
+            }
+            lastTimestampMicros = event.getTimestampMicros();
+        }
+        appliedSeq += frame.events.size();
+        leaderHeadSeq = Math.max(leaderHeadSeq, frame.headSeq);
+        if (appliedSeq >= leaderHeadSeq) {
+            lagMillis = 0;
+        } else if (lastTimestampMicros != 0) {
+            lagMillis = Math.max(0, System.currentTimeMillis() - lastTimestampMicros / 1000);
+        }
+    }
+
+    // Getters for monitoring
+    public long getAppliedSequence() {
+        return appliedSeq;
+    }
+
+    public long getLagEvents() {
+        return Math.max(0, leaderHeadSeq - appliedSeq);
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+}
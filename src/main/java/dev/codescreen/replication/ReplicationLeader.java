@@ -0,0 +1,257 @@
+package dev.codescreen.replication;
+
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.service.EventStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Leader side of event replication.
+ * Each connected follower gets its own sender thread that reads events from the EventStore by global sequence number,
+ * starting from the one the follower asked for, so the leader keeps no copy of the events of its own.
+ * Frames are batched and pipelined: the sender keeps writing while acknowledgements are read on a separate thread
+ * and only used to report lag.
+ * Enabled with {@code ledger.replication.role=leader}; followers connect to {@code ledger.replication.port}.
+ * The stream is not authenticated, so the port only listens on loopback unless {@code ledger.replication.bind-address}
+ * names another interface.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.replication.role", havingValue = "leader")
+public class ReplicationLeader {
+    // Logger for follower connections and failures.
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationLeader.class);
+
+    private final EventStore eventStore; // Source of appended events, read by sequence number.
+
+    // Identifies this run of the leader; a follower that replicated from another run must resync from scratch.
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+    // Currently connected followers.
+    private final List<FollowerSession> sessions = new CopyOnWriteArrayList<>();
+
+    @Value("${ledger.replication.port:9090}")
+    private int port = 9090;
+
+    @Value("${ledger.replication.bind-address:127.0.0.1}")
+    private String bindAddress = "127.0.0.1";
+
+    @Value("${ledger.replication.max-batch:256}")
+    private int maxBatch = 256;
+
+    @Value("${ledger.replication.heartbeat-ms:1000}")
+    private long heartbeatMs = 1000;
+
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructs the leader.
+     * @param eventStore Store whose appended events are replicated.
+     */
+    @Autowired
+    public ReplicationLeader(EventStore eventStore) {
+        this.eventStore = eventStore;
+    }
+
+    /**
+     * Opens the replication port.
+     * @throws IOException If the port cannot be bound.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!eventStore.isSequenced()) {
+            throw new IllegalStateException("Replication leader requires a sequenced EventStore");
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getByName(bindAddress));
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "replication-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Replication leader listening on {}:{}", bindAddress, serverSocket.getLocalPort());
+    }
+
+    /**
+     * Closes the replication port and disconnects all followers.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close replication port", e);
+        }
+        for (FollowerSession session : sessions) {
+            session.close();
+        }
+    }
+
+    /**
+     * Accepts follower connections until the leader is stopped.
+     */
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                FollowerSession session = new FollowerSession(socket);
+                sessions.add(session);
+                session.start();
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Failed to accept follower connection", e);
+                }
+            }
+        }
+    }
+
+    // Getters for monitoring
+    public int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getHeadSequence() {
+        return eventStore.getSequence();
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public int getFollowerCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns how many events the slowest connected follower has not yet acknowledged.
+     * @return The lag in events, or 0 when no follower is connected.
+     */
+    public long getLagEvents() {
+        long head = getHeadSequence();
+        long lag = 0;
+        for (FollowerSession session : sessions) {
+            lag = Math.max(lag, head - session.ackedSeq);
+        }
+        return lag;
+    }
+
+    /**
+     * Returns the age of the oldest event not yet acknowledged by some follower.
+     * @return The lag in milliseconds, or 0 when every follower is caught up.
+     */
+    public long getLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (FollowerSession session : sessions) {
+            oldest = Math.min(oldest, session.ackedSeq);
+        }
+        if (oldest == Long.MAX_VALUE) {
+            return 0;
+        }
+        List<TransactionEvent> pending = eventStore.getEventsBySequence(oldest + 1, 1);
+        return pending.isEmpty() ? 0 : Math.max(0, System.currentTimeMillis() - pending.get(0).getTimestampMicros() / 1000);
+    }
+
+    /**
+     * One connected follower: a sender thread streaming the log and a reader thread collecting acknowledgements.
+     */
+    private class FollowerSession {
+        private final Socket socket;
+        private volatile long ackedSeq; // Last sequence number the follower reported as applied.
+
+        FollowerSession(Socket socket) {
+            this.socket = socket;
+        }
+
+        void start() {
+            Thread sender = new Thread(this::sendLoop, "replication-sender-" + socket.getPort());
+            sender.setDaemon(true);
+            sender.start();
+        }
+
+        void close() {
+            sessions.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close follower connection", e);
+            }
+        }
+
+        /**
+         * Agrees on the starting sequence number with the follower, then streams batches until the connection drops.
+         */
+        private void sendLoop() {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+                long followerEpoch = in.readLong();
+                long next = in.readLong();
+                if (followerEpoch != epoch || next < 1 || next > getHeadSequence() + 1) {
+                    // The follower's events came from another run of the leader (or it has none): rebuild from the start.
+                    if (next > 1) {
+                        logger.warn("Follower {} holds {} events from another leader run, resyncing it from scratch",
+                                socket.getRemoteSocketAddress(), next - 1);
+                    }
+                    next = 1;
+                }
+                ackedSeq = next - 1;
+                out.writeLong(epoch);
+                out.writeLong(next);
+                out.flush();
+                logger.info("Follower {} connected, streaming from sequence {}", socket.getRemoteSocketAddress(), next);
+
+                Thread ackReader = new Thread(() -> readAcks(in), "replication-acks-" + socket.getPort());
+                ackReader.setDaemon(true);
+                ackReader.start();
+
+                while (running && !socket.isClosed()) {
+                    eventStore.awaitSequence(next, heartbeatMs);
+                    List<TransactionEvent> batch = eventStore.getEventsBySequence(next, maxBatch);
+                    // Sent without waiting for the previous frame to be acknowledged; an empty frame is a heartbeat.
+                    ReplicationProtocol.writeFrame(out, next, eventStore.getSequence(), batch);
+                    out.flush();
+                    next += batch.size();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.info("Follower {} disconnected: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Records the follower's acknowledgements until the connection drops.
+         */
+        private void readAcks(DataInputStream in) {
+            try {
+                while (true) {
+                    ackedSeq = in.readLong();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+}
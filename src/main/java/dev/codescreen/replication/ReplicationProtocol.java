@@ -0,0 +1,86 @@
+package dev.codescreen.replication;
+
+import dev.codescreen.model.TransactionEvent;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format shared by the replication leader and follower.
+ * Sequence numbers are the EventStore's global sequence numbers on the leader, so events restored from the database
+ * on startup always come first, whatever order the beans were started in.
+ * On connect the follower sends the epoch of the leader it last replicated from (0 if none) and the sequence number it
+ * wants next. Each leader start picks a new random epoch, so the leader answers with its own epoch and the sequence
+ * number it will stream from: the one asked for if the epochs match, otherwise 1, in which case the follower discards
+ * its events and rebuilds from scratch. The leader then streams frames, each holding the sequence number of its first
+ * event, the leader's current head sequence and a batch of events; an empty frame acts as a heartbeat.
+ * The follower answers every frame with the last sequence number it applied.
+ */
+final class ReplicationProtocol {
+
+    private ReplicationProtocol() {
+    }
+
+    /**
+     * A decoded frame.
+     */
+    static final class Frame {
+        final long firstSeq; // Sequence number of the first event, or of the next event for an empty frame.
+        final long headSeq; // Last sequence number appended on the leader when the frame was sent.
+        final List<TransactionEvent> events;
+
+        Frame(long firstSeq, long headSeq, List<TransactionEvent> events) {
+            this.firstSeq = firstSeq;
+            this.headSeq = headSeq;
+            this.events = events;
+        }
+    }
+
+    /**
+     * Writes one frame. The caller decides when to flush so several frames can be pipelined.
+     * @param out Stream connected to the follower.
+     * @param firstSeq Sequence number of the first event.
+     * @param headSeq The leader's current head sequence number.
+     * @param events The events to send, in sequence order.
+     * @throws IOException If the connection fails.
+     */
+    static void writeFrame(DataOutputStream out, long firstSeq, long headSeq, List<TransactionEvent> events) throws IOException {
+        out.writeInt(events.size());
+        out.writeLong(firstSeq);
+        out.writeLong(headSeq);
+        for (TransactionEvent event : events) {
+            out.writeUTF(event.getAccountId());
+            out.writeDouble(event.getAmount());
+            out.writeUTF(event.getType());
+            out.writeLong(event.getTimestampMicros());
+            out.writeBoolean(event.isSuccess());
+            out.writeDouble(event.getNewBalance());
+        }
+    }
+
+    /**
+     * Reads one frame, blocking until it is fully available.
+     * @param in Stream connected to the leader.
+     * @return The decoded frame.
+     * @throws IOException If the connection fails or is closed.
+     */
+    static Frame readFrame(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        long firstSeq = in.readLong();
+        long headSeq = in.readLong();
+        List<TransactionEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String accountId = in.readUTF();
+            double amount = in.readDouble();
+            String type = in.readUTF();
+            long timestampMicros = in.readLong();
+            boolean success = in.readBoolean();
+            double newBalance = in.readDouble();
+            events.add(new TransactionEvent(accountId, amount, timestampMicros, newBalance, type, success));
+        }
+        return new Frame(firstSeq, headSeq, events);
+    }
+}
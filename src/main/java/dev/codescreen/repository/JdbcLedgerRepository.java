@@ -0,0 +1,376 @@
+package dev.codescreen.repository;
+
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Optional write-behind persistence of the ledger to the configured relational DataSource.
+ * Appended events are queued on the request thread and written by a background thread in JDBC batches,
+ * so request latency never waits on the database. Balance updates are coalesced per account within a batch.
+ * On startup the EventStore and BalanceService are rehydrated from the tables before new events are accepted.
+ * Enabled with {@code ledger.persistence.enabled=true}; point {@code spring.datasource.url} at a file-based H2
+ * database (e.g. {@code jdbc:h2:file:./data/ledger}) for the data to survive restarts.
+ * The queue holds at most {@code ledger.persistence.queue-capacity} events. When it is full, e.g. during a database
+ * outage, {@code ledger.persistence.overflow-policy=block} (the default) makes request threads wait for room, trading
+ * availability for durability, while {@code drop} discards the event from persistence only and counts it.
+ */
+@Repository
+@ConditionalOnProperty(name = "ledger.persistence.enabled", havingValue = "true")
+public class JdbcLedgerRepository {
+    // Logger for reporting rehydration and flush failures.
+    private static final Logger logger = LoggerFactory.getLogger(JdbcLedgerRepository.class);
+
+    private static final String CREATE_EVENT_TABLE = "CREATE TABLE IF NOT EXISTS ledger_event ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, account_id VARCHAR(255) NOT NULL, amount DOUBLE NOT NULL, "
+            + "type VARCHAR(32) NOT NULL, event_micros BIGINT NOT NULL, success BOOLEAN NOT NULL, new_balance DOUBLE NOT NULL)";
+    private static final String CREATE_BALANCE_TABLE = "CREATE TABLE IF NOT EXISTS ledger_balance ("
+            + "account_id VARCHAR(255) PRIMARY KEY, balance DOUBLE NOT NULL)";
+    private static final String INSERT_EVENT = "INSERT INTO ledger_event "
+            + "(account_id, amount, type, event_micros, success, new_balance) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_BALANCE = "MERGE INTO ledger_balance (account_id, balance) KEY (account_id) VALUES (?, ?)";
+    private static final String SELECT_EVENTS = "SELECT account_id, amount, type, event_micros, success, new_balance "
+            + "FROM ledger_event ORDER BY id";
+    // How long an idle writer waits for the first event before re-checking whether it should stop.
+    private static final long IDLE_POLL_MS = 100;
+    // Minimum pause before retrying a batch that failed to write.
+    private static final long RETRY_BACKOFF_MS = 100;
+
+    private static final String SELECT_BALANCES = "SELECT account_id, balance FROM ledger_balance";
+    // Replication state of a follower, e.g. the epoch of the leader run its events came from.
+    private static final String CREATE_REPLICATION_TABLE = "CREATE TABLE IF NOT EXISTS ledger_replication ("
+            + "name VARCHAR(64) PRIMARY KEY, val BIGINT NOT NULL)";
+    private static final String SELECT_LEADER_EPOCH = "SELECT val FROM ledger_replication WHERE name = 'leader_epoch'";
+    private static final String MERGE_LEADER_EPOCH = "MERGE INTO ledger_replication (name, val) KEY (name) VALUES ('leader_epoch', ?)";
+
+    private final DataSource dataSource; // Target relational store.
+    private final EventStore eventStore; // Source of appended events and target of rehydration.
+    private final BalanceService balanceService; // Target of balance rehydration.
+
+    // Events appended but not yet written; created on start with the configured capacity.
+    private volatile BlockingQueue<TransactionEvent> queue;
+    private final Consumer<TransactionEvent> enqueue = this::enqueue; // Registered with the EventStore while running.
+
+    // Counters exposed for monitoring.
+    private final AtomicLong eventsWritten = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private final AtomicLong eventsDropped = new AtomicLong();
+
+    @Value("${ledger.persistence.flush-size:500}")
+    private int flushSize = 500;
+
+    @Value("${ledger.persistence.flush-interval-ms:50}")
+    private long flushIntervalMs = 50;
+
+    @Value("${ledger.persistence.queue-capacity:100000}")
+    private int queueCapacity = 100_000;
+
+    // "block" or "drop"; what to do with an event when the queue is full.
+    @Value("${ledger.persistence.overflow-policy:block}")
+    private String overflowPolicy = "block";
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Constructs the repository.
+     * @param dataSource DataSource of the relational store.
+     * @param eventStore Store whose appended events are persisted.
+     * @param balanceService Service whose balances are restored on startup.
+     */
+    @Autowired
+    public JdbcLedgerRepository(DataSource dataSource, EventStore eventStore, BalanceService balanceService) {
+        this.dataSource = dataSource;
+        this.eventStore = eventStore;
+        this.balanceService = balanceService;
+    }
+
+    /**
+     * Creates the tables if needed, rehydrates the in-memory stores, then starts streaming new events.
+     * @throws SQLException If the schema cannot be created or the tables cannot be read.
+     * @throws IllegalArgumentException If the flush size or queue capacity is not positive, the flush interval is
+     *                                  negative or the overflow policy is unknown.
+     */
+    @PostConstruct
+    public void start() throws SQLException {
+        // A flush size of 0 would make the writer spin without ever taking an event, and a negative one would kill it.
+        if (flushSize <= 0) {
+            throw new IllegalArgumentException("ledger.persistence.flush-size must be positive but was " + flushSize);
+        }
+        if (flushIntervalMs < 0) {
+            throw new IllegalArgumentException("ledger.persistence.flush-interval-ms must not be negative but was " + flushIntervalMs);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("ledger.persistence.queue-capacity must be positive but was " + queueCapacity);
+        }
+        if (!"block".equals(overflowPolicy) && !"drop".equals(overflowPolicy)) {
+            throw new IllegalArgumentException("ledger.persistence.overflow-policy must be block or drop but was " + overflowPolicy);
+        }
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_EVENT_TABLE);
+            statement.execute(CREATE_BALANCE_TABLE);
+            statement.execute(CREATE_REPLICATION_TABLE);
+        }
+        rehydrate();
+
+        // Register only after rehydration so restored events are not written back.
+        startWriter();
+    }
+
+    private void startWriter() {
+        eventStore.addListener(enqueue);
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting new work and waits for the queued events to be written.
+     * @throws InterruptedException If interrupted while waiting for the writer thread.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Unregister first so no event lands in the queue after the writer has drained it.
+        eventStore.removeListener(enqueue);
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Queues an appended event for writing, applying the overflow policy when the queue is full.
+     * Runs on the request thread while it holds the account's lock.
+     * @param event The event just added to the EventStore.
+     */
+    private void enqueue(TransactionEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+        if ("block".equals(overflowPolicy)) {
+            try {
+                queue.put(event);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Log the first loss loudly; later ones are visible through the dropped-events counter.
+        if (eventsDropped.incrementAndGet() == 1) {
+            logger.error("Write-behind queue is full ({} events); events are no longer being persisted", queueCapacity);
+        }
+    }
+
+    /**
+     * Writes the queued events, then deletes every stored event and balance, e.g. before a replication follower
+     * rebuilds its ledger from scratch. Events appended afterwards are persisted as usual.
+     * @throws SQLException If the tables cannot be emptied.
+     * @throws InterruptedException If interrupted while waiting for the queued events to be written.
+     */
+    public synchronized void reset() throws SQLException, InterruptedException {
+        stop();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM ledger_event");
+            statement.execute("DELETE FROM ledger_balance");
+        }
+        queue.clear();
+        startWriter();
+        logger.info("Deleted all persisted events and balances");
+    }
+
+    /**
+     * Returns the epoch of the replication leader run the persisted events were replicated from.
+     * @return The epoch, or 0 if none was saved.
+     * @throws SQLException If the table cannot be read.
+     */
+    public long getLeaderEpoch() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_LEADER_EPOCH)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Saves the epoch of the replication leader run the persisted events are replicated from.
+     * @param epoch The leader's epoch.
+     * @throws SQLException If the value cannot be written.
+     */
+    public void saveLeaderEpoch(long epoch) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MERGE_LEADER_EPOCH)) {
+            statement.setLong(1, epoch);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Loads the persisted events and balances back into the EventStore and BalanceService.
+     * @throws SQLException If the tables cannot be read.
+     */
+    private void rehydrate() throws SQLException {
+        int events = 0;
+        int balances = 0;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(SELECT_EVENTS)) {
+                while (rs.next()) {
+                    eventStore.addEvent(rs.getString(1), rs.getDouble(2), rs.getLong(4), rs.getDouble(6),
+                            rs.getString(3), rs.getBoolean(5));
+                    events++;
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(SELECT_BALANCES)) {
+                while (rs.next()) {
+                    balanceService.updateBalance(rs.getString(1), rs.getDouble(2));
+                    balances++;
+                }
+            }
+        }
+        logger.info("Rehydrated {} events and {} balances from the database", events, balances);
+    }
+
+    /**
+     * Waits for a first event, then collects more until either flushSize is reached or flushIntervalMs has passed,
+     * and writes them. A failed batch is kept and retried on the next round so no event is lost.
+     */
+    private void writeLoop() {
+        List<TransactionEvent> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    // Block for the first event, so an idle writer sleeps whatever the flush interval is.
+                    // Once stopping, only drain what is left.
+                    TransactionEvent first = running ? queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS) : queue.poll();
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                queue.drainTo(batch, flushSize - batch.size());
+                long remaining;
+                while (running && batch.size() < flushSize && (remaining = deadline - System.nanoTime()) > 0) {
+                    TransactionEvent event = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (event == null) {
+                        break;
+                    }
+                    batch.add(event);
+                    queue.drainTo(batch, flushSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                write(batch);
+                batch.clear();
+            } catch (SQLException e) {
+                logger.error("Failed to write {} events, will retry", batch.size(), e);
+                if (!running) {
+                    return; // Shutting down; give up rather than spin on a broken connection.
+                }
+                try {
+                    Thread.sleep(Math.max(flushIntervalMs, RETRY_BACKOFF_MS)); // Back off before retrying the same batch.
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes one batch of events and the resulting balances in a single transaction.
+     * @param batch The events to write, in append order.
+     * @throws SQLException If the batch could not be written; the transaction is rolled back.
+     */
+    private void write(List<TransactionEvent> batch) throws SQLException {
+        // Only the last successful balance of each account in the batch needs to be stored.
+        Map<String, Double> balances = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insertEvent = connection.prepareStatement(INSERT_EVENT);
+                 PreparedStatement mergeBalance = connection.prepareStatement(MERGE_BALANCE)) {
+                for (TransactionEvent event : batch) {
+                    insertEvent.setString(1, event.getAccountId());
+                    insertEvent.setDouble(2, event.getAmount());
+                    insertEvent.setString(3, event.getType());
+                    insertEvent.setLong(4, event.getTimestampMicros());
+                    insertEvent.setBoolean(5, event.isSuccess());
+                    insertEvent.setDouble(6, event.getNewBalance());
+                    insertEvent.addBatch();
+                    if (event.isSuccess()) {
+                        balances.put(event.getAccountId(), event.getNewBalance());
+                    }
+                }
+                insertEvent.executeBatch();
+                for (Map.Entry<String, Double> balance : balances.entrySet()) {
+                    mergeBalance.setString(1, balance.getKey());
+                    mergeBalance.setDouble(2, balance.getValue());
+                    mergeBalance.addBatch();
+                }
+                mergeBalance.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        eventsWritten.addAndGet(batch.size());
+        batchesWritten.incrementAndGet();
+    }
+
+    // Getters for monitoring
+    public int getQueueDepth() {
+        BlockingQueue<TransactionEvent> current = queue;
+        return current != null ? current.size() : 0;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getEventsDropped() {
+        return eventsDropped.get();
+    }
+
+    public long getEventsWritten() {
+        return eventsWritten.get();
+    }
+
+    public long getBatchesWritten() {
+        return batchesWritten.get();
+    }
+}
@@ -6,11 +6,12 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Service class for managing balances of accounts.
  * This service handles the retrieval and updating of account balances using a thread-safe ConcurrentHashMap.
+ * Each account maps to a mutable holder, so updating an existing balance does not box a new Double.
  */
 @Service
 public class BalanceService {
     // A ConcurrentHashMap to store account balances, ensuring thread safety.
-    private ConcurrentHashMap<String, Double> balances = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Balance> balances = new ConcurrentHashMap<>();
 
     /**
      * Retrieves the current balance for a specified account.
@@ -20,8 +21,9 @@ public class BalanceService {
      * @return The current balance of the account. If no balance is found, returns 0.0.
      */
     public double getBalance(String accountId) {
-        // The getOrDefault method returns the balance if the account exists, or 0.0 if not.
-        return balances.getOrDefault(accountId, 0.0);
+        // Return the balance if the account exists, or 0.0 if not.
+        Balance balance = balances.get(accountId);
+        return balance != null ? balance.value : 0.0;
     }
 
     /**
@@ -32,7 +34,23 @@ public class BalanceService {
      * @param newBalance The new balance to set for the account.
      */
     public void updateBalance(String accountId, double newBalance) {
-        // The put method updates the existing balance or creates a new account entry if it does not exist.
-        balances.put(accountId, newBalance);
+        // Update the existing holder in place, creating it only the first time the account is seen.
+        Balance balance = balances.get(accountId);
+        if (balance == null) {
+            balance = balances.computeIfAbsent(accountId, k -> new Balance());
+        }
+        balance.value = newBalance;
+    }
+
+    /**
+     * Removes every balance, e.g. when a replication follower has to resync from scratch.
+     */
+    public void clear() {
+        balances.clear();
+    }
+
+    // Mutable balance of one account.
+    private static final class Balance {
+        private volatile double value;
     }
 }
@@ -1,10 +1,13 @@
 package dev.codescreen.service;
 
+import dev.codescreen.util.LedgerClock;
+
 import java.time.LocalDateTime;
 
 /**
  * Interface for services managing bank ledger operations.
  * This interface defines methods for loading funds into an account and authorizing transactions.
+ * Timestamps are epoch microseconds; the LocalDateTime overloads convert and delegate.
  */
 public interface BankLedgerService {
 
@@ -14,14 +17,35 @@ public interface BankLedgerService {
      *
      * @param accountId The unique identifier of the account to which funds will be loaded.
      * @param amount The amount of funds to be added to the account.
-     * @param timestamp The date and time at which the transaction is initiated or recorded.
+     * @param timestampMicros The time at which the transaction is initiated, in microseconds since the epoch.
      * @return The new balance of the account after the funds have been added.
      */
-    double loadFunds(String accountId, double amount, LocalDateTime timestamp);
+    double loadFunds(String accountId, double amount, long timestampMicros);
 
     /**
      * Authorizes a transaction to withdraw a specified amount from an account at a given timestamp.
      * This method checks if the account has sufficient funds and, if so, deducts the specified amount.
+     *
+     * @param accountId The unique identifier of the account from which funds will be withdrawn.
+     * @param amount The amount of funds to withdraw.
+     * @param timestampMicros The time at which the transaction is initiated, in microseconds since the epoch.
+     * @return The balance of the account after the attempt.
+     */
+    double authorizeTransaction(String accountId, double amount, long timestampMicros);
+
+    /**
+     * Loads a specified amount of funds into an account at a given date and time.
+     * @see #loadFunds(String, double, long)
+     */
+    default double loadFunds(String accountId, double amount, LocalDateTime timestamp) {
+        return loadFunds(accountId, amount, LedgerClock.toEpochMicros(timestamp));
+    }
+
+    /**
+     * Authorizes a transaction at a given date and time.
+     * @see #authorizeTransaction(String, double, long)
      */
-    double authorizeTransaction(String accountId, double amount, LocalDateTime timestamp);
+    default double authorizeTransaction(String accountId, double amount, LocalDateTime timestamp) {
+        return authorizeTransaction(accountId, amount, LedgerClock.toEpochMicros(timestamp));
+    }
 }
@@ -1,37 +1,217 @@
 package dev.codescreen.service;
 
 import dev.codescreen.model.TransactionEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 
 /**
  * A component responsible for storing and retrieving transaction events.
- * Uses a ConcurrentHashMap to maintain a thread-safe collection of events grouped by account IDs.
+ * Uses a ConcurrentHashMap of per-account logs. Each log keeps its events in primitive column arrays together with
+ * the running balance, so appending an event on the request path does not allocate an object per event.
+ * TransactionEvent objects are only created when events are read back or handed to listeners.
+ * A sequenced store, used by the replication leader, also gives every event a global sequence number in append order,
+ * starting at 1, by recording its position in a journal of (account log, index) pairs, so events can be read back
+ * across accounts in the order they were added. The journal takes a lock shared by all accounts and keeps 8 bytes per
+ * event, so it is only built when {@code ledger.replication.role=leader}.
  */
 @Component
 public class EventStore {
     // Logger for logging information about the operations performed by the EventStore.
     private static final Logger logger = LoggerFactory.getLogger(EventStore.class);
 
-    // A ConcurrentHashMap to hold lists of transaction events keyed by account ID.
-    private final ConcurrentHashMap<String, List<TransactionEvent>> store = new ConcurrentHashMap<>();
+    // A ConcurrentHashMap to hold the event log of each account, keyed by account ID.
+    private final ConcurrentHashMap<String, AccountLog> store = new ConcurrentHashMap<>();
+
+    // Account IDs that received events since they were last handed out by pollChangedAccounts.
+    private final Set<String> changedAccounts = ConcurrentHashMap.newKeySet();
+
+    // Listeners notified of every appended event, e.g. persistence.
+    private final List<Consumer<TransactionEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    // Global append order, or null when the store is not sequenced.
+    private final Journal journal;
+
+    /**
+     * Creates a store without global sequence numbers.
+     */
+    public EventStore() {
+        this(false);
+    }
+
+    /**
+     * Creates a store, sequenced if this instance is a replication leader.
+     * @param sequenced Whether to assign global sequence numbers to appended events.
+     */
+    @Autowired
+    public EventStore(@Value("#{'${ledger.replication.role:standalone}' == 'leader'}") boolean sequenced) {
+        this.journal = sequenced ? new Journal() : null;
+    }
 
     /**
      * Adds a transaction event to the store.
-     * If no list exists for the given account ID, it creates a new list and adds the event to it.
+     * If no log exists for the given account ID, it creates a new log and adds the event to it.
      *
      * @param event The transaction event to add to the store.
      */
     public void addEvent(TransactionEvent event) {
-        // The computeIfAbsent method ensures that a list is present for the given account ID
-        // and adds the event to this list. If no list exists, it creates one and adds the event.
-        store.computeIfAbsent(event.getAccountId(), k -> new ArrayList<>()).add(event);
-        // Log the addition of a new event for traceability.
-        logger.info("Event added: {}", event);
+        append(event.getAccountId(), event.getAmount(), event.getTimestampMicros(), event.getNewBalance(),
+                event.getType(), event.isSuccess(), event);
+    }
+
+    /**
+     * Adds a transaction event to the store from its fields, without creating a TransactionEvent
+     * unless a listener is registered.
+     *
+     * @param accountId The account the event belongs to.
+     * @param amount The amount of the transaction.
+     * @param timestampMicros The time of the transaction in microseconds since the epoch.
+     * @param newBalance The balance of the account after the transaction.
+     * @param type The type of transaction, "load" or "authorization".
+     * @param success Whether the transaction was successful.
+     */
+    public void addEvent(String accountId, double amount, long timestampMicros, double newBalance, String type, boolean success) {
+        append(accountId, amount, timestampMicros, newBalance, type, success, null);
+    }
+
+    private void append(String accountId, double amount, long timestampMicros, double newBalance, String type,
+                        boolean success, TransactionEvent event) {
+        // Look up first so the common case of an existing account takes no lock and allocates nothing.
+        AccountLog log = store.get(accountId);
+        if (log == null) {
+            log = store.computeIfAbsent(accountId, AccountLog::new);
+        }
+        // Sequencing and notifying under the account's lock keeps both in the same order as the account's own log;
+        // different accounts still never share a lock unless the store is sequenced.
+        synchronized (log) {
+            int index = log.append(amount, timestampMicros, newBalance, type, success);
+            if (journal != null) {
+                journal.append(log, index);
+            }
+            // Hand the event to any registered listeners.
+            if (!listeners.isEmpty()) {
+                if (event == null) {
+                    event = new TransactionEvent(accountId, amount, timestampMicros, newBalance, type, success);
+                }
+                for (Consumer<TransactionEvent> listener : listeners) {
+                    listener.accept(event);
+                }
+            }
+        }
+        // Remember the account so the reconciliation pass only needs to re-check what changed.
+        changedAccounts.add(accountId);
+        // Log the addition of a new event for traceability; guarded so the message is only built when needed.
+        if (logger.isDebugEnabled()) {
+            logger.debug("Event added: {}", event != null ? event
+                    : new TransactionEvent(accountId, amount, timestampMicros, newBalance, type, success));
+        }
+    }
+
+    /**
+     * Registers a listener that is called with every event added from now on, in sequence order for each account.
+     * Listeners run on the request thread while it holds the account's lock, so they must only hand the event off
+     * and return quickly.
+     *
+     * @param listener The callback to invoke for each appended event.
+     */
+    public void addListener(Consumer<TransactionEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener so it is no longer called for appended events.
+     *
+     * @param listener The callback previously passed to addListener.
+     */
+    public void removeListener(Consumer<TransactionEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns whether appended events are given global sequence numbers.
+     */
+    public boolean isSequenced() {
+        return journal != null;
+    }
+
+    /**
+     * Returns the sequence number of the last event added, which is also the number of events in the store.
+     * On a store that is not sequenced this counts the events of every account, so it is not meant for the request path.
+     *
+     * @return The last sequence number, or 0 if the store is empty.
+     */
+    public long getSequence() {
+        if (journal != null) {
+            return journal.size();
+        }
+        long count = 0;
+        for (AccountLog log : store.values()) {
+            count += log.size();
+        }
+        return count;
+    }
+
+    /**
+     * Waits until the event with the given sequence number has been added, or the timeout expires.
+     *
+     * @param sequence The sequence number to wait for.
+     * @param timeoutMs The maximum time to wait in milliseconds.
+     * @return The last sequence number when the wait ended.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public long awaitSequence(long sequence, long timeoutMs) throws InterruptedException {
+        return sequencedJournal().await(sequence, timeoutMs);
+    }
+
+    /**
+     * Retrieves events across all accounts in the order they were added.
+     *
+     * @param fromSequence Sequence number of the first event to return; sequence numbers start at 1.
+     * @param max The maximum number of events to return.
+     * @return A snapshot of up to {@code max} events, empty if {@code fromSequence} is beyond the last one.
+     */
+    public List<TransactionEvent> getEventsBySequence(long fromSequence, int max) {
+        List<TransactionEvent> events = new ArrayList<>();
+        AccountLog[] logs = new AccountLog[max];
+        int[] indexes = new int[max];
+        int count = sequencedJournal().read(fromSequence, logs, indexes);
+        // Read outside the journal's lock so an append, which takes the account lock first, cannot deadlock with us.
+        for (int i = 0; i < count; i++) {
+            events.add(logs[i].eventAt(indexes[i]));
+        }
+        return events;
+    }
+
+    /**
+     * Removes every event and resets the sequence to 0, e.g. when a replication follower has to resync from scratch.
+     * Must not run concurrently with appends; the follower calls it from its only appending thread.
+     */
+    public void clear() {
+        store.clear();
+        changedAccounts.clear();
+        if (journal != null) {
+            journal.clear();
+        }
+    }
+
+    private Journal sequencedJournal() {
+        if (journal == null) {
+            throw new IllegalStateException("EventStore is not sequenced; set ledger.replication.role=leader");
+        }
+        return journal;
     }
 
     /**
@@ -39,11 +219,77 @@ public class EventStore {
      * If no events are found for the account, it returns an empty list.
      *
      * @param accountId The account ID for which events are to be retrieved.
-     * @return A list of transaction events associated with the given account ID.
+     * @return A snapshot of the transaction events associated with the given account ID.
      */
     public List<TransactionEvent> getEvents(String accountId) {
-        // Return the list of events for the account or an empty list if no events exist.
-        return store.getOrDefault(accountId, new ArrayList<>());
+        AccountLog log = store.get(accountId);
+        // Return the events for the account or an empty list if no events exist.
+        return log != null ? log.toEvents() : Collections.<TransactionEvent>emptyList();
+    }
+
+    /**
+     * Returns the balance implied by the successful events of an account: loads minus authorizations.
+     * The value is maintained on every append, so this is a constant-time lookup.
+     *
+     * @param accountId The account ID whose balance is requested.
+     * @return The balance of the account, or 0.0 if it has no events.
+     */
+    public double getBalance(String accountId) {
+        AccountLog log = store.get(accountId);
+        return log != null ? log.balance() : 0.0;
+    }
+
+    /**
+     * Returns the number of events recorded for an account.
+     *
+     * @param accountId The account ID whose events are counted.
+     * @return The number of events, or 0 if the account is unknown.
+     */
+    public int getEventCount(String accountId) {
+        AccountLog log = store.get(accountId);
+        return log != null ? log.size() : 0;
+    }
+
+    /**
+     * Recomputes the net effect of at most {@code maxEvents} successful events of an account from index {@code from},
+     * directly from the stored amounts rather than from the running balance. The account's lock is held for this
+     * slice only, and the log's size, its running balance and a projected balance are read under the same lock,
+     * so they describe the log
+     * at exactly the moment the slice was summed.
+     *
+     * @param accountId The account ID whose events are summed.
+     * @param from Index of the first event to include.
+     * @param maxEvents The maximum number of events to include.
+     * @param projection Read under the account's lock, e.g. the cached balance being verified.
+     * @return The sum of successful loads minus successful authorizations in the slice, with the log's state.
+     */
+    public Slice sumSlice(String accountId, int from, int maxEvents, ToDoubleFunction<String> projection) {
+        AccountLog log = store.get(accountId);
+        if (log == null) {
+            return new Slice(from, 0, 0, 0, 0, projection.applyAsDouble(accountId));
+        }
+        synchronized (log) {
+            int end = Math.max(from, Math.min(log.size, from + maxEvents));
+            return new Slice(end, log.sum(from, end), log.size, log.balance, log.lastEffect,
+                    projection.applyAsDouble(accountId));
+        }
+    }
+
+    /**
+     * Removes and returns up to {@code max} account IDs that have received events since the last call.
+     * Accounts not returned stay queued for the next call.
+     *
+     * @param max The maximum number of account IDs to return.
+     * @return The account IDs that changed, in no particular order.
+     */
+    public List<String> pollChangedAccounts(int max) {
+        List<String> polled = new ArrayList<>(Math.min(max, changedAccounts.size()));
+        Iterator<String> iterator = changedAccounts.iterator();
+        while (polled.size() < max && iterator.hasNext()) {
+            polled.add(iterator.next());
+            iterator.remove();
+        }
+        return polled;
     }
 
     /**
@@ -54,11 +300,238 @@ public class EventStore {
         // Iterate over all account IDs in the store.
         for (String accountId : store.keySet()) {
             System.out.println("Events for account ID: " + accountId);
-            List<TransactionEvent> events = store.get(accountId);
             // Print each event using the TransactionEvent's toString method.
-            for (TransactionEvent event : events) {
+            for (TransactionEvent event : getEvents(accountId)) {
                 System.out.println(event);
             }
         }
     }
+
+    /**
+     * Append-only event log of one account, stored column by column in fixed-size chunks.
+     * Only the first chunk grows (by doubling, so small accounts stay small); later chunks are allocated at full size
+     * and never copied, so a busy account's log grows without producing garbage.
+     */
+    private static final class AccountLog {
+        private static final int CHUNK_SHIFT = 9;
+        private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 512 events per chunk.
+        private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final String accountId;
+        private Chunk[] chunks = {new Chunk(INITIAL_CAPACITY)};
+        private int size;
+        private double balance; // Successful loads minus successful authorizations.
+        private double lastEffect; // Change made to the balance by the last successful event.
+
+        AccountLog(String accountId) {
+            this.accountId = accountId;
+        }
+
+        // Returns the index of the appended event within this log.
+        synchronized int append(double amount, long timestampMicros, double newBalance, String type, boolean success) {
+            int index = size >>> CHUNK_SHIFT;
+            int offset = size & CHUNK_MASK;
+            if (index == chunks.length) {
+                chunks = Arrays.copyOf(chunks, index * 2);
+            }
+            Chunk chunk = chunks[index];
+            if (chunk == null) {
+                chunk = new Chunk(CHUNK_SIZE);
+                chunks[index] = chunk;
+            } else if (offset == chunk.timestamps.length) {
+                chunk.grow(Math.min(offset * 2, CHUNK_SIZE));
+            }
+            chunk.timestamps[offset] = timestampMicros;
+            chunk.amounts[offset] = amount;
+            chunk.newBalances[offset] = newBalance;
+            chunk.types[offset] = type;
+            chunk.successes[offset] = success;
+            if (success) {
+                lastEffect = "load".equals(type) ? amount : -amount;
+                balance += lastEffect;
+            }
+            return size++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized double balance() {
+            return balance;
+        }
+
+        synchronized double sum(int from, int to) {
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                Chunk chunk = chunks[i >>> CHUNK_SHIFT];
+                int offset = i & CHUNK_MASK;
+                if (chunk.successes[offset]) {
+                    sum += "load".equals(chunk.types[offset]) ? chunk.amounts[offset] : -chunk.amounts[offset];
+                }
+            }
+            return sum;
+        }
+
+        synchronized List<TransactionEvent> toEvents() {
+            List<TransactionEvent> events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                events.add(eventAt(i));
+            }
+            return events;
+        }
+
+        synchronized TransactionEvent eventAt(int index) {
+            Chunk chunk = chunks[index >>> CHUNK_SHIFT];
+            int offset = index & CHUNK_MASK;
+            return new TransactionEvent(accountId, chunk.amounts[offset], chunk.timestamps[offset],
+                    chunk.newBalances[offset], chunk.types[offset], chunk.successes[offset]);
+        }
+    }
+
+    /**
+     * A slice of an account's log summed by {@link #sumSlice}, together with the log's state at that moment.
+     */
+    public static final class Slice {
+        private final int end; // Index after the last event summed.
+        private final double sum; // Net effect of the successful events in the slice.
+        private final int size; // Number of events in the log.
+        private final double balance; // Running balance of the log, as used to authorize requests.
+        private final double lastEffect; // Change made by the last successful event in the log.
+        private final double projected; // Value of the projection read with the slice.
+
+        Slice(int end, double sum, int size, double balance, double lastEffect, double projected) {
+            this.end = end;
+            this.sum = sum;
+            this.size = size;
+            this.balance = balance;
+            this.lastEffect = lastEffect;
+            this.projected = projected;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        // Whether the slice reached the end of the log.
+        public boolean isCaughtUp() {
+            return end >= size;
+        }
+
+        public double getBalance() {
+            return balance;
+        }
+
+        public double getLastEffect() {
+            return lastEffect;
+        }
+
+        public double getProjected() {
+            return projected;
+        }
+    }
+
+    /**
+     * Global append order: slot {@code sequence - 1} holds the account log and index of that event.
+     * Like the account logs it is stored in fixed-size chunks, so appending never copies or frees slots.
+     */
+    private static final class Journal {
+        private static final int CHUNK_SHIFT = 12;
+        private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 4096 slots per chunk.
+        private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+        private AccountLog[][] logs = new AccountLog[1][];
+        private int[][] indexes = new int[1][];
+        private long size;
+        private int waiters; // Threads blocked in await, so appends only notify when someone is waiting.
+
+        synchronized void append(AccountLog log, int index) {
+            int chunk = (int) (size >>> CHUNK_SHIFT);
+            int offset = (int) (size & CHUNK_MASK);
+            if (chunk == logs.length) {
+                logs = Arrays.copyOf(logs, chunk * 2);
+                indexes = Arrays.copyOf(indexes, chunk * 2);
+            }
+            if (logs[chunk] == null) {
+                logs[chunk] = new AccountLog[CHUNK_SIZE];
+                indexes[chunk] = new int[CHUNK_SIZE];
+            }
+            logs[chunk][offset] = log;
+            indexes[chunk][offset] = index;
+            size++;
+            if (waiters > 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized long size() {
+            return size;
+        }
+
+        synchronized long await(long sequence, long timeoutMs) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            long remaining;
+            while (size < sequence && (remaining = deadline - System.nanoTime()) > 0) {
+                waiters++;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } finally {
+                    waiters--;
+                }
+            }
+            return size;
+        }
+
+        // Copies the slots from the given sequence number into the arrays and returns how many were copied.
+        synchronized int read(long fromSequence, AccountLog[] logsOut, int[] indexesOut) {
+            int count = 0;
+            for (long slot = Math.max(fromSequence, 1) - 1; slot < size && count < logsOut.length; slot++, count++) {
+                logsOut[count] = logs[(int) (slot >>> CHUNK_SHIFT)][(int) (slot & CHUNK_MASK)];
+                indexesOut[count] = indexes[(int) (slot >>> CHUNK_SHIFT)][(int) (slot & CHUNK_MASK)];
+            }
+            return count;
+        }
+
+        synchronized void clear() {
+            logs = new AccountLog[1][];
+            indexes = new int[1][];
+            size = 0;
+        }
+    }
+
+    /**
+     * Column arrays holding up to CHUNK_SIZE events.
+     */
+    private static final class Chunk {
+        private long[] timestamps;
+        private double[] amounts;
+        private double[] newBalances;
+        private String[] types; // References to the shared type literals.
+        private boolean[] successes;
+
+        Chunk(int capacity) {
+            timestamps = new long[capacity];
+            amounts = new double[capacity];
+            newBalances = new double[capacity];
+            types = new String[capacity];
+            successes = new boolean[capacity];
+        }
+
+        void grow(int capacity) {
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            newBalances = Arrays.copyOf(newBalances, capacity);
+            types = Arrays.copyOf(types, capacity);
+            successes = Arrays.copyOf(successes, capacity);
+        }
+    }
 }
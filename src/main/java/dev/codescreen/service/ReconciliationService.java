@@ -0,0 +1,239 @@
+package dev.codescreen.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Background verifier that checks the cached balances held by the BalanceService, and the running balances the
+ * EventStore authorizes requests against, against the events in the EventStore.
+ * Each account keeps a rolling digest (number of events folded in and their running sum), so a pass only reads the
+ * events appended since the account was last checked, and only accounts reported as changed by the EventStore are visited.
+ * Events are folded in slices of at most SLICE_EVENTS under the account's lock, so a long backlog never holds up
+ * the account's requests for long; an account that is not caught up when the pass runs out of events is carried over.
+ * The verifier runs on a single low-priority daemon thread and sleeps long enough after every pass to stay within its CPU budget.
+ */
+@Service
+public class ReconciliationService {
+    // Logger used to report divergences and pass failures.
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    // Balances closer than half a cent are considered equal.
+    private static final double TOLERANCE = 0.005;
+
+    // Events folded per acquisition of an account's lock.
+    private static final int SLICE_EVENTS = 4096;
+
+    private final EventStore eventStore; // Source of truth for transaction events.
+    private final ToDoubleFunction<String> cachedBalance; // Projection being verified, read under the account's lock.
+
+    // Rolling digests, suspects and accounts still being folded; only touched while holding the monitor of this service.
+    private final Map<String, AccountDigest> digests = new HashMap<>();
+    private final Set<String> suspects = new HashSet<>();
+    private final Set<String> unfolded = new HashSet<>();
+
+    // Counters exposed for monitoring.
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong accountsChecked = new AtomicLong();
+    private final AtomicLong divergences = new AtomicLong();
+    private final AtomicLong lastPassNanos = new AtomicLong();
+
+    @Value("${ledger.reconciliation.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ledger.reconciliation.interval-ms:1000}")
+    private long intervalMs = 1000;
+
+    @Value("${ledger.reconciliation.max-accounts-per-pass:1000}")
+    private int maxAccountsPerPass = 1000;
+
+    @Value("${ledger.reconciliation.max-events-per-pass:65536}")
+    private int maxEventsPerPass = 65536;
+
+    // Fraction of one core the verifier may use, e.g. 0.05 means it sleeps at least 19x as long as it works.
+    @Value("${ledger.reconciliation.cpu-budget:0.05}")
+    private double cpuBudget = 0.05;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructs the verifier over the given event store and balance projection.
+     * @param eventStore Store holding the transaction events.
+     * @param balanceService Service holding the cached balances to verify.
+     */
+    @Autowired
+    public ReconciliationService(EventStore eventStore, BalanceService balanceService) {
+        this.eventStore = eventStore;
+        this.cachedBalance = balanceService::getBalance;
+    }
+
+    /**
+     * Starts the background verifier thread if reconciliation is enabled.
+     * @throws IllegalArgumentException If the CPU budget is not in (0, 1] or the events per pass are not positive.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // A budget of 0 would stretch the delay after the first pass to forever, silently disabling the verifier.
+        if (!(cpuBudget > 0 && cpuBudget <= 1)) {
+            throw new IllegalArgumentException("ledger.reconciliation.cpu-budget must be in (0, 1] but was " + cpuBudget);
+        }
+        if (maxEventsPerPass <= 0) {
+            throw new IllegalArgumentException("ledger.reconciliation.max-events-per-pass must be positive but was " + maxEventsPerPass);
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-reconciler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.schedule(this::runAndReschedule, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background verifier thread.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one pass and schedules the next one, stretching the delay so that busy time stays within the CPU budget.
+     */
+    private void runAndReschedule() {
+        long started = System.nanoTime();
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.error("Reconciliation pass failed", e);
+        }
+        long busy = System.nanoTime() - started;
+        long throttle = (long) (busy * (1 - cpuBudget) / cpuBudget);
+        long delay = Math.max(TimeUnit.MILLISECONDS.toNanos(intervalMs), throttle);
+        if (!executor.isShutdown()) {
+            executor.schedule(this::runAndReschedule, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs a single reconciliation pass over the accounts that changed since the previous pass, the accounts that
+     * looked inconsistent last time and the accounts whose backlog was not fully folded yet.
+     * An account is only compared once its digest has caught up with its log, against the running balance and the
+     * cached balance read under the same lock. The running balance is updated with the log, so any mismatch there is
+     * reported at once. The cached balance is updated just after the event is appended, so it may still be the balance
+     * before the last successful event; anything else is a mismatch, reported when seen on two passes in a row.
+     *
+     * @return The number of divergences confirmed during this pass.
+     */
+    public synchronized int reconcile() {
+        long started = System.nanoTime();
+        Set<String> accounts = new LinkedHashSet<>(eventStore.pollChangedAccounts(maxAccountsPerPass));
+        accounts.addAll(suspects);
+        accounts.addAll(unfolded);
+
+        int confirmed = 0;
+        int eventBudget = maxEventsPerPass;
+        for (String accountId : accounts) {
+            AccountDigest digest = digests.computeIfAbsent(accountId, k -> new AccountDigest());
+            EventStore.Slice slice = null;
+            while (eventBudget > 0 && (slice == null || !slice.isCaughtUp())) {
+                slice = eventStore.sumSlice(accountId, digest.count, Math.min(SLICE_EVENTS, eventBudget), cachedBalance);
+                eventBudget -= digest.fold(slice);
+            }
+            if (slice == null || !slice.isCaughtUp()) {
+                unfolded.add(accountId); // Out of events for this pass; carry on from the digest next time.
+                continue;
+            }
+            unfolded.remove(accountId);
+
+            if (Math.abs(slice.getBalance() - digest.sum) > TOLERANCE) {
+                suspects.remove(accountId);
+                confirmed++;
+                logger.warn("Running balance divergence for account {}: running={}, events={} over {} events",
+                        accountId, slice.getBalance(), digest.sum, digest.count);
+                continue;
+            }
+            double cached = slice.getProjected();
+            if (Math.abs(cached - digest.sum) <= TOLERANCE
+                    || Math.abs(cached - (digest.sum - slice.getLastEffect())) <= TOLERANCE) {
+                suspects.remove(accountId);
+            } else if (suspects.remove(accountId)) {
+                // Mismatched on two passes in a row: report it and wait for the account to change again.
+                confirmed++;
+                logger.warn("Balance divergence for account {}: cached={}, events={} over {} events",
+                        accountId, cached, digest.sum, digest.count);
+            } else {
+                suspects.add(accountId);
+            }
+        }
+
+        passes.incrementAndGet();
+        accountsChecked.addAndGet(accounts.size());
+        divergences.addAndGet(confirmed);
+        lastPassNanos.set(System.nanoTime() - started);
+        return confirmed;
+    }
+
+    // Getters for monitoring
+    public long getPasses() {
+        return passes.get();
+    }
+
+    public long getAccountsChecked() {
+        return accountsChecked.get();
+    }
+
+    public long getDivergences() {
+        return divergences.get();
+    }
+
+    public long getLastPassNanos() {
+        return lastPassNanos.get();
+    }
+
+    /**
+     * Running digest of the events already verified for one account.
+     */
+    private static class AccountDigest {
+        private int count; // Number of events folded into the digest.
+        private double sum; // Balance implied by those events.
+
+        /**
+         * Folds a slice of the account's log into the digest.
+         * @param slice The slice summed from this digest's count.
+         * @return The number of events folded.
+         */
+        int fold(EventStore.Slice slice) {
+            if (slice.getSize() < count) {
+                // The log was cleared and rebuilt, e.g. by a replication resync; start the digest over.
+                count = 0;
+                sum = 0;
+                return 1; // Charge the wasted slice, so a log that keeps shrinking cannot stall the pass.
+            }
+            int folded = slice.getEnd() - count;
+            sum += slice.getSum();
+            count = slice.getEnd();
+            return folded;
+        }
+    }
+}
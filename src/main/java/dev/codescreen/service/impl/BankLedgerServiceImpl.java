@@ -1,16 +1,14 @@
 package dev.codescreen.service.impl;
 
-import dev.codescreen.model.TransactionEvent;
 import dev.codescreen.service.BalanceService;
 import dev.codescreen.service.BankLedgerService;
 import dev.codescreen.service.EventStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-
 /**
  * Service implementation for handling bank ledger operations such as loading funds and authorizing transactions.
+ * Events are recorded from primitive fields, so processing a request allocates nothing in steady state.
  */
 @Service
 public class BankLedgerServiceImpl implements BankLedgerService {
@@ -32,15 +30,14 @@ public class BankLedgerServiceImpl implements BankLedgerService {
      * Loads funds into an account and logs the transaction event.
      * @param accountId The identifier of the account to which funds will be loaded.
      * @param amount The amount of funds to load.
-     * @param timestamp The timestamp at which the transaction occurs.
+     * @param timestampMicros The time at which the transaction occurs, in microseconds since the epoch.
      * @return The new balance after loading the funds.
      */
     @Override
-    public double loadFunds(String accountId, double amount, LocalDateTime timestamp) {
+    public double loadFunds(String accountId, double amount, long timestampMicros) {
         double currentBalance = getCurrentBalance(accountId); // Retrieve current balance.
         double newBalance = currentBalance + amount; // Calculate new balance by adding amount.
-        TransactionEvent event = new TransactionEvent(accountId, amount, timestamp, newBalance, "load", true);
-        eventStore.addEvent(event); // Log transaction event.
+        eventStore.addEvent(accountId, amount, timestampMicros, newBalance, "load", true); // Log transaction event.
         balanceService.updateBalance(accountId, newBalance); // Update account balance.
         return newBalance;
     }
@@ -49,17 +46,17 @@ public class BankLedgerServiceImpl implements BankLedgerService {
      * Authorizes a transaction by checking if the account balance is sufficient and logs the transaction event.
      * @param accountId The identifier of the account from which funds will be authorized.
      * @param amount The amount of funds to authorize.
-     * @param timestamp The timestamp at which the authorization is attempted.
+     * @param timestampMicros The time at which the authorization is attempted, in microseconds since the epoch.
      * @return The new balance after attempting the authorization.
      */
     @Override
-    public double authorizeTransaction(String accountId, double amount, LocalDateTime timestamp) {
+    public double authorizeTransaction(String accountId, double amount, long timestampMicros) {
         double currentBalance = getCurrentBalance(accountId); // Retrieve current balance.
         boolean success = currentBalance >= amount; // Check if the balance is sufficient.
         double newBalance = success ? currentBalance - amount : currentBalance; // Calculate new balance.
 
-        TransactionEvent event = new TransactionEvent(accountId, amount, timestamp, newBalance, "authorization", success);
-        eventStore.addEvent(event); // Log transaction event, whether successful or not.
+        // Log transaction event, whether successful or not.
+        eventStore.addEvent(accountId, amount, timestampMicros, newBalance, "authorization", success);
         if (success) {
             balanceService.updateBalance(accountId, newBalance); // Update balance only on successful authorization.
         }
@@ -72,10 +69,7 @@ public class BankLedgerServiceImpl implements BankLedgerService {
      * @return The current calculated balance of the account.
      */
     public double getCurrentBalance(String accountId) {
-        // Calculate the balance by summing up the amounts of all successful transaction events.
-        return eventStore.getEvents(accountId).stream()
-                .filter(TransactionEvent::isSuccess)
-                .mapToDouble(e -> "load".equals(e.getType()) ? e.getAmount() : -e.getAmount())
-                .sum();
+        // The event store keeps the sum of all successful transaction events up to date on every append.
+        return eventStore.getBalance(accountId);
     }
 }
@@ -0,0 +1,154 @@
+package dev.codescreen.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coarse, cached wall clock used to timestamp ledger events.
+ * While started, a daemon thread refreshes the cached value every millisecond, so reading the time on the request path
+ * is a volatile read that allocates nothing; when stopped, the time is read from System.currentTimeMillis() instead.
+ * The ticker is started and stopped with the application context by LedgerClockTicker.
+ * Timestamps are microseconds since the epoch; the helpers convert to and from LocalDateTime in the system default
+ * time zone, matching what LocalDateTime.now() used to produce.
+ * Formatting a timestamp reuses the date and time up to the second, cached for the last second formatted,
+ * so response bodies can be built without creating a LocalDateTime per request.
+ */
+public final class LedgerClock {
+    // Refresh period of the cached time.
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // Date and time up to the second; the fraction is appended separately.
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    // Current time in epoch microseconds, at most one tick old while the ticker runs.
+    private static volatile long nowMicros;
+
+    // The running ticker thread, or null when stopped; a ticker exits as soon as it is no longer this thread.
+    private static volatile Thread ticker;
+
+    // The last second formatted by appendLocalDateTime.
+    private static volatile FormattedSecond lastSecond = new FormattedSecond(Long.MIN_VALUE, "");
+
+    private LedgerClock() {
+    }
+
+    /**
+     * Starts the ticker thread if it is not already running.
+     */
+    public static synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        nowMicros = System.currentTimeMillis() * 1000;
+        Thread thread = new Thread(LedgerClock::tick, "ledger-clock");
+        thread.setDaemon(true);
+        ticker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the ticker thread and waits for it to exit; later reads fall back to the system clock.
+     * @throws InterruptedException If interrupted while waiting for the ticker thread.
+     */
+    public static synchronized void stop() throws InterruptedException {
+        Thread thread = ticker;
+        ticker = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    /**
+     * Returns whether the ticker thread is running.
+     */
+    public static boolean isRunning() {
+        return ticker != null;
+    }
+
+    private static void tick() {
+        Thread self = Thread.currentThread();
+        while (ticker == self) {
+            nowMicros = System.currentTimeMillis() * 1000;
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+    }
+
+    /**
+     * Returns the current time, cached if the ticker is running.
+     * @return Microseconds since the epoch, with millisecond resolution.
+     */
+    public static long currentTimeMicros() {
+        return ticker != null ? nowMicros : System.currentTimeMillis() * 1000;
+    }
+
+    /**
+     * Converts a local date-time in the system default zone to epoch microseconds.
+     * @param timestamp The date-time to convert.
+     * @return Microseconds since the epoch.
+     */
+    public static long toEpochMicros(LocalDateTime timestamp) {
+        Instant instant = timestamp.atZone(ZoneId.systemDefault()).toInstant();
+        return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(instant.getNano());
+    }
+
+    /**
+     * Appends epoch microseconds as an ISO-8601 local date-time in the system default zone, e.g.
+     * {@code 2024-05-01T12:30:45.123}, with six fraction digits when the time is not a whole millisecond.
+     * Only the first timestamp of each second creates objects.
+     * @param out The builder to append to.
+     * @param epochMicros Microseconds since the epoch.
+     * @return The builder.
+     */
+    public static StringBuilder appendLocalDateTime(StringBuilder out, long epochMicros) {
+        long second = Math.floorDiv(epochMicros, 1_000_000L);
+        int micros = (int) Math.floorMod(epochMicros, 1_000_000L);
+        FormattedSecond formatted = lastSecond;
+        if (formatted.epochSecond != second) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+            formatted = new FormattedSecond(second, dateTime.format(SECOND_FORMAT));
+            lastSecond = formatted;
+        }
+        out.append(formatted.text).append('.');
+        if (micros % 1000 == 0) {
+            appendPadded(out, micros / 1000, 100);
+        } else {
+            appendPadded(out, micros, 100_000);
+        }
+        return out;
+    }
+
+    // Appends a non-negative value left-padded with zeros to the number of digits of the given power of ten.
+    private static void appendPadded(StringBuilder out, int value, int magnitude) {
+        for (int digit = magnitude; digit > 1 && value < digit; digit /= 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    /**
+     * Converts epoch microseconds to a local date-time in the system default zone.
+     * @param epochMicros Microseconds since the epoch.
+     * @return The corresponding date-time.
+     */
+    public static LocalDateTime toLocalDateTime(long epochMicros) {
+        long seconds = Math.floorDiv(epochMicros, 1_000_000L);
+        long micros = Math.floorMod(epochMicros, 1_000_000L);
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(seconds, TimeUnit.MICROSECONDS.toNanos(micros)), ZoneId.systemDefault());
+    }
+
+    // A second since the epoch and its formatted local date-time, published together.
+    private static final class FormattedSecond {
+        private final long epochSecond;
+        private final String text;
+
+        FormattedSecond(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+    }
+}
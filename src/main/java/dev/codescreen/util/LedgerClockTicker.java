@@ -0,0 +1,30 @@
+package dev.codescreen.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ties the LedgerClock ticker thread to the application context, so it is stopped on shutdown and on
+ * development-time context restarts instead of outliving them.
+ */
+@Component
+public class LedgerClockTicker {
+
+    /**
+     * Starts the cached clock.
+     */
+    @PostConstruct
+    public void start() {
+        LedgerClock.start();
+    }
+
+    /**
+     * Stops the cached clock; timestamps taken afterwards read the system clock directly.
+     * @throws InterruptedException If interrupted while waiting for the ticker thread.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        LedgerClock.stop();
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the packaged application twice, as a replication leader and a follower in two local processes, and checks
+ * that writes to the leader reach the follower over the replication port.
+ * Run by failsafe after packaging ({@code mvn verify}), which passes the jar in the {@code ledger.jar} property.
+ */
+class ReplicationProcessIT {
+
+    private static final long STARTUP_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(120); // Cold start of a Spring Boot jar.
+    private static final long REPLICATION_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2)).build();
+    private final List<Process> processes = new ArrayList<>(); // Started instances, destroyed after each test.
+
+    /**
+     * Stops both instances, forcibly if they do not exit in time.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Tests that loads and authorizations on the leader process are replicated to the follower process,
+     * which serves them and rejects writes of its own.
+     */
+    @Test
+    void testFollowerProcessReplicatesLeaderProcess() throws Exception {
+        String jar = System.getProperty("ledger.jar");
+        Assumptions.assumeTrue(jar != null && new File(jar).isFile(), "Packaged jar not available; run with mvn verify");
+        int leaderPort = freePort();
+        int followerPort = freePort();
+        int replicationPort = freePort();
+
+        String leader = start(jar, "leader", "--server.port=" + leaderPort,
+                "--ledger.replication.role=leader", "--ledger.replication.port=" + replicationPort);
+        String follower = start(jar, "follower", "--server.port=" + followerPort,
+                "--ledger.replication.role=follower", "--ledger.replication.port=" + replicationPort);
+        awaitResponse(leader + "/", response -> response.statusCode() == 200, STARTUP_TIMEOUT_MS);
+        awaitResponse(follower + "/", response -> response.statusCode() == 200, STARTUP_TIMEOUT_MS);
+
+        assertEquals(200, put(leader + "/load", "{\"accountId\":\"it-1\",\"amount\":100.0}").statusCode());
+        assertEquals(201, put(leader + "/authorization", "{\"accountId\":\"it-1\",\"amount\":30.0}").statusCode());
+
+        HttpResponse<String> balance = awaitResponse(follower + "/balance/it-1",
+                response -> response.body().contains("\"balance\": 70.0"), REPLICATION_TIMEOUT_MS);
+        assertTrue(balance.body().contains("\"balance\": 70.0"), "Follower should serve the replicated balance");
+        assertTrue(get(follower + "/replication").body().contains("\"appliedSequence\": 2"),
+                "Follower should have applied both events");
+        assertEquals(403, put(follower + "/load", "{\"accountId\":\"it-1\",\"amount\":1.0}").statusCode(),
+                "Follower should reject writes");
+    }
+
+    // Starts the jar with the given arguments, logging to target/<name>.log, and returns its base URL.
+    private String start(String jar, String name, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar);
+        for (String arg : args) {
+            command.add(arg);
+        }
+        File log = new File(new File(jar).getParentFile(), "replication-it-" + name + ".log");
+        processes.add(new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start());
+        String port = args[0].substring(args[0].indexOf('=') + 1);
+        return "http://localhost:" + port;
+    }
+
+    // Polls a URL until the response satisfies the condition, failing with the last response or error on timeout.
+    private HttpResponse<String> awaitResponse(String url, Predicate<HttpResponse<String>> condition, long timeoutMs)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        String last = "no response";
+        while (System.currentTimeMillis() < deadline) {
+            for (Process process : processes) {
+                assertTrue(process.isAlive(), "An instance exited early; see target/replication-it-*.log");
+            }
+            try {
+                HttpResponse<String> response = get(url);
+                if (condition.test(response)) {
+                    return response;
+                }
+                last = response.statusCode() + " " + response.body();
+            } catch (IOException e) {
+                last = e.toString();
+            }
+            Thread.sleep(250);
+        }
+        return fail("Timed out waiting for " + url + ", last: " + last);
+    }
+
+    private HttpResponse<String> get(String url) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> put(String url, String json) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5))
+                        .header("Content-Type", "application/json").PUT(HttpRequest.BodyPublishers.ofString(json)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
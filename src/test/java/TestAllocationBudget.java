@@ -0,0 +1,115 @@
+import dev.codescreen.controller.BankLedgerController;
+import dev.codescreen.dto.BankLedgerRequest;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import dev.codescreen.service.impl.BankLedgerServiceImpl;
+import dev.codescreen.util.LedgerClock;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the allocation rate of the load and authorization paths through the service layer, and through the
+ * controller methods that build the response body.
+ * Bytes are counted with the JVM's per-thread allocation counter, so the figure includes the event log's own chunks
+ * (the events are retained data); everything else in the service layer should allocate nothing.
+ * Neither budget covers the HTTP stack: request parsing, JSON binding and writing the response are not measured.
+ */
+class TestAllocationBudget {
+
+    // Bytes per request allowed on average; the stored event itself takes about 29 bytes of column arrays.
+    // A standalone store keeps no sequence journal.
+    private static final long BYTES_PER_REQUEST_BUDGET = 40;
+
+    // Bytes per request allowed through the controller: the service budget plus the ResponseEntity and the body,
+    // one presized builder and its String, about 300 bytes together.
+    private static final long CONTROLLER_BYTES_PER_REQUEST_BUDGET = 400;
+
+    private static final int ACCOUNTS = 64; // Number of distinct accounts exercised.
+    private static final int WARMUP_REQUESTS = 200_000; // Requests run before measuring, to let the JIT settle.
+    private static final int MEASURED_REQUESTS = 200_000; // Requests counted against the budget.
+
+    /**
+     * Tests that steady-state loads and authorizations stay within the per-request allocation budget.
+     */
+    @Test
+    void testSteadyStateAllocationPerRequest() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        BankLedgerServiceImpl service = new BankLedgerServiceImpl(new EventStore(), new BalanceService());
+        String[] accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = "account-" + i;
+        }
+
+        run(service, accountIds, WARMUP_REQUESTS);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(service, accountIds, MEASURED_REQUESTS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        double perRequest = (double) allocated / MEASURED_REQUESTS;
+        assertTrue(perRequest <= BYTES_PER_REQUEST_BUDGET,
+                "Allocated " + perRequest + " bytes per request, budget is " + BYTES_PER_REQUEST_BUDGET);
+    }
+
+    /**
+     * Tests that the controller methods, including building the response body, stay within their allocation budget.
+     */
+    @Test
+    void testControllerAllocationPerRequest() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        BankLedgerController controller = new BankLedgerController(new BankLedgerServiceImpl(new EventStore(), new BalanceService()));
+        BankLedgerRequest[] requests = new BankLedgerRequest[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            requests[i] = new BankLedgerRequest("account-" + i, 10.0, "USD", "load", null);
+        }
+
+        run(controller, requests, WARMUP_REQUESTS);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(controller, requests, MEASURED_REQUESTS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        double perRequest = (double) allocated / MEASURED_REQUESTS;
+        assertTrue(perRequest <= CONTROLLER_BYTES_PER_REQUEST_BUDGET,
+                "Allocated " + perRequest + " bytes per request, budget is " + CONTROLLER_BYTES_PER_REQUEST_BUDGET);
+    }
+
+    // Alternates loads and authorizations across the accounts through the controller.
+    private static void run(BankLedgerController controller, BankLedgerRequest[] requests, int count) {
+        for (int i = 0; i < count; i++) {
+            BankLedgerRequest request = requests[i % requests.length];
+            if ((i & 1) == 0) {
+                controller.loadFunds(request);
+            } else {
+                controller.authorizeTransaction(request);
+            }
+        }
+    }
+
+    // Alternates loads and authorizations across the accounts.
+    private static void run(BankLedgerServiceImpl service, String[] accountIds, int requests) {
+        for (int i = 0; i < requests; i++) {
+            String accountId = accountIds[i % accountIds.length];
+            long timestamp = LedgerClock.currentTimeMicros();
+            if ((i & 1) == 0) {
+                service.loadFunds(accountId, 10.0, timestamp);
+            } else {
+                service.authorizeTransaction(accountId, 7.5, timestamp);
+            }
+        }
+    }
+
+    // Returns the HotSpot thread bean, skipping the test on JVMs that cannot count allocations.
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Per-thread allocation counting is not available on this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "Per-thread allocation counting is not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
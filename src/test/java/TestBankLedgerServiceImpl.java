@@ -11,10 +11,7 @@ import dev.codescreen.service.impl.BankLedgerServiceImpl;
 import dev.codescreen.model.TransactionEvent;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.mockito.ArgumentMatchers.any;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.List;
 
 public class TestBankLedgerServiceImpl {
 
@@ -59,16 +56,16 @@ public class TestBankLedgerServiceImpl {
 
     @Test
     public void testGetCurrentBalance() {
-        // Arrange: Mock eventStore to return specific events
+        // Arrange: Record events in a real EventStore, which keeps the running balance
         String accountId = "123";
-        when(eventStore.getEvents(accountId)).thenReturn(Arrays.asList(
-                new TransactionEvent(accountId, 100.00, LocalDateTime.now(), 100, "load", true),
-                new TransactionEvent(accountId, 50.00, LocalDateTime.now(), 50, "authorization", true),
-                new TransactionEvent(accountId, 20.00, LocalDateTime.now(), 30, "authorization", false)  // This failed event should not affect the balance
-        ));
+        EventStore realEventStore = new EventStore();
+        realEventStore.addEvent(new TransactionEvent(accountId, 100.00, LocalDateTime.now(), 100, "load", true));
+        realEventStore.addEvent(new TransactionEvent(accountId, 50.00, LocalDateTime.now(), 50, "authorization", true));
+        realEventStore.addEvent(new TransactionEvent(accountId, 20.00, LocalDateTime.now(), 30, "authorization", false));  // This failed event should not affect the balance
+        BankLedgerServiceImpl service = new BankLedgerServiceImpl(realEventStore, balanceService);
 
         // Act: Retrieve current balance
-        double balance = bankLedgerService.getCurrentBalance(accountId);
+        double balance = service.getCurrentBalance(accountId);
 
         // Assert: Check the balance is calculated correctly
         assertEquals(50.00, balance, 0.01);
@@ -81,11 +78,8 @@ public class TestBankLedgerServiceImpl {
         double transactionAmount = 50.0;
         double initialBalance = 100.0;
         LocalDateTime timestamp = LocalDateTime.now();
-        List<TransactionEvent> events = Arrays.asList(
-                new TransactionEvent(accountId, 100.0, timestamp.minusDays(1), 100.0, "load", true)
-        );
 
-        when(eventStore.getEvents(accountId)).thenReturn(events);
+        when(eventStore.getBalance(accountId)).thenReturn(initialBalance);  // Balance left by an earlier load of 100.
 
         // Act: Authorize a transaction
         double result = bankLedgerService.authorizeTransaction(accountId, transactionAmount, timestamp);
@@ -102,11 +96,8 @@ public class TestBankLedgerServiceImpl {
         double transactionAmount = 150.0;
         double initialBalance = 100.0;
         LocalDateTime timestamp = LocalDateTime.now();
-        List<TransactionEvent> events = Arrays.asList(
-                new TransactionEvent(accountId, 100.0, timestamp.minusDays(1), 100.0, "load", true)
-        );
 
-        when(eventStore.getEvents(accountId)).thenReturn(events);
+        when(eventStore.getBalance(accountId)).thenReturn(initialBalance);  // Balance left by an earlier load of 100.
 
         // Act: Attempt to authorize a transaction that should fail
         double result = bankLedgerService.authorizeTransaction(accountId, transactionAmount, timestamp);
@@ -114,7 +105,7 @@ public class TestBankLedgerServiceImpl {
         // Assert: Verify that the transaction fails as expected
         assertEquals(initialBalance, result, 0.001);
         verify(balanceService, never()).updateBalance(eq(accountId), anyDouble()); // Verify no balance update is made
-        verify(eventStore).addEvent(any(TransactionEvent.class)); // Ensure the transaction is logged despite the failure
+        verify(eventStore).addEvent(eq(accountId), eq(transactionAmount), anyLong(), eq(initialBalance), eq("authorization"), eq(false)); // Ensure the transaction is logged despite the failure
     }
 
 }
@@ -81,4 +81,22 @@ class TestEventStore {
         assertEquals(1, eventStore.getEvents(anotherAccountId).size(), "Second account should have one event"); // Verify the second account has one event.
         assertNotEquals(eventStore.getEvents(accountId).get(0), eventStore.getEvents(anotherAccountId).get(0), "Events for different accounts should be different"); // Verify events are different.
     }
+
+    /**
+     * Tests that events of different accounts are numbered in the order they were added and read back by sequence.
+     */
+    @Test
+    void testEventsBySequence() {
+        eventStore = new EventStore(true);
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        eventStore.addEvent(new TransactionEvent("67890", 50.0, timestamp, 50.0, "load", true));
+        eventStore.addEvent(new TransactionEvent(accountId, 30.0, timestamp, 70.0, "authorization", true));
+
+        assertEquals(3, eventStore.getSequence(), "Every event should get a sequence number");
+        List<TransactionEvent> events = eventStore.getEventsBySequence(2, 10);
+        assertEquals(2, events.size(), "Events from sequence 2 on should be returned");
+        assertEquals("67890", events.get(0).getAccountId(), "Sequence 2 is the second event added");
+        assertEquals("authorization", events.get(1).getType(), "Sequence 3 is the third event added");
+        assertTrue(eventStore.getEventsBySequence(4, 10).isEmpty(), "No events exist beyond the last sequence");
+    }
 }
@@ -0,0 +1,171 @@
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.repository.JdbcLedgerRepository;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestJdbcLedgerRepository {
+
+    private JdbcDataSource dataSource; // In-memory H2 database shared by both "runs" of the service.
+    private final String accountId = "12345"; // Sample account ID for testing.
+    private final LocalDateTime timestamp = LocalDateTime.now(); // Timestamp used for events.
+
+    /**
+     * Creates a fresh named in-memory database that survives connection close.
+     */
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ledger" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * Tests that appended events and balances are flushed to the tables on shutdown.
+     */
+    @Test
+    void testEventsAreWrittenBehind() throws Exception {
+        EventStore eventStore = new EventStore();
+        JdbcLedgerRepository repository = new JdbcLedgerRepository(dataSource, eventStore, new BalanceService());
+        repository.start();
+
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        eventStore.addEvent(new TransactionEvent(accountId, 40.0, timestamp, 60.0, "authorization", true));
+        eventStore.addEvent(new TransactionEvent(accountId, 90.0, timestamp, 60.0, "authorization", false));
+        repository.stop(); // Drains the queue before returning.
+
+        assertEquals(3, repository.getEventsWritten(), "All events should be written");
+        assertEquals(0, repository.getQueueDepth(), "Queue should be drained");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT balance FROM ledger_balance WHERE account_id = '" + accountId + "'")) {
+            assertTrue(rs.next(), "Balance row should exist");
+            assertEquals(60.0, rs.getDouble(1), 0.001, "Last successful balance should be stored");
+        }
+    }
+
+    /**
+     * Tests that a new instance restores events and balances from the tables without writing them again.
+     */
+    @Test
+    void testRehydrateOnStartup() throws Exception {
+        EventStore firstStore = new EventStore();
+        JdbcLedgerRepository first = new JdbcLedgerRepository(dataSource, firstStore, new BalanceService());
+        first.start();
+        firstStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        firstStore.addEvent(new TransactionEvent(accountId, 25.0, timestamp, 75.0, "authorization", true));
+        first.stop();
+
+        EventStore secondStore = new EventStore();
+        BalanceService secondBalances = new BalanceService();
+        JdbcLedgerRepository second = new JdbcLedgerRepository(dataSource, secondStore, secondBalances);
+        second.start();
+        second.stop();
+
+        List<TransactionEvent> events = secondStore.getEvents(accountId);
+        assertEquals(2, events.size(), "Both events should be restored");
+        assertEquals("load", events.get(0).getType(), "Events should be restored in append order");
+        assertEquals(firstStore.getEvents(accountId).get(0).getTimestampMicros(), events.get(0).getTimestampMicros(),
+                "Timestamps should be restored to the microsecond");
+        assertEquals(75.0, secondBalances.getBalance(accountId), 0.001, "Balance should be restored");
+        assertEquals(0, second.getEventsWritten(), "Restored events should not be written again");
+    }
+
+    /**
+     * Tests that events appended after shutdown are no longer queued.
+     */
+    @Test
+    void testStopUnregistersListener() throws Exception {
+        EventStore eventStore = new EventStore();
+        JdbcLedgerRepository repository = new JdbcLedgerRepository(dataSource, eventStore, new BalanceService());
+        repository.start();
+        repository.stop();
+
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+
+        assertEquals(0, repository.getQueueDepth(), "Events after shutdown should not be queued");
+    }
+
+    /**
+     * Tests that a flush size of zero is rejected at startup instead of spinning the writer thread.
+     */
+    @Test
+    void testZeroFlushSizeIsRejected() {
+        JdbcLedgerRepository repository = new JdbcLedgerRepository(dataSource, new EventStore(), new BalanceService());
+        ReflectionTestUtils.setField(repository, "flushSize", 0);
+
+        assertThrows(IllegalArgumentException.class, repository::start, "A zero flush size should be rejected");
+    }
+
+    /**
+     * Tests that with a zero flush interval an idle writer thread blocks instead of spinning.
+     */
+    @Test
+    void testIdleWriterDoesNotSpinWithZeroFlushInterval() throws Exception {
+        JdbcLedgerRepository repository = new JdbcLedgerRepository(dataSource, new EventStore(), new BalanceService());
+        ReflectionTestUtils.setField(repository, "flushIntervalMs", 0L);
+        repository.start();
+        try {
+            Thread writer = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().equals("ledger-write-behind"))
+                    .findFirst().orElseThrow(AssertionError::new);
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long before = threads.getThreadCpuTime(writer.getId());
+            Thread.sleep(300);
+            long used = threads.getThreadCpuTime(writer.getId()) - before;
+
+            assertTrue(used < 50_000_000L, "Idle writer used " + used / 1_000_000 + " ms of CPU in 300 ms");
+        } finally {
+            repository.stop();
+        }
+    }
+
+    /**
+     * Tests that with the drop policy a full queue drops events from persistence and counts them.
+     */
+    @Test
+    void testFullQueueDropsEvents() throws Exception {
+        EventStore eventStore = new EventStore();
+        JdbcLedgerRepository repository = new JdbcLedgerRepository(dataSource, eventStore, new BalanceService());
+        ReflectionTestUtils.setField(repository, "queueCapacity", 2);
+        ReflectionTestUtils.setField(repository, "flushSize", 1);
+        ReflectionTestUtils.setField(repository, "overflowPolicy", "drop");
+        repository.start();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE ledger_event"); // Every write now fails, so the queue stays full.
+        }
+
+        for (int i = 1; i <= 10; i++) {
+            eventStore.addEvent(new TransactionEvent(accountId, 1.0, timestamp, i, "load", true));
+        }
+
+        assertTrue(repository.getEventsDropped() >= 7, "Events beyond the queue and the pending batch should be dropped");
+        assertTrue(repository.getQueueDepth() <= 2, "Queue should not grow past its capacity");
+        assertEquals(10, eventStore.getEventCount(accountId), "Dropping from persistence should not affect the ledger");
+        repository.stop();
+    }
+
+    /**
+     * Tests that an unknown overflow policy is rejected at startup.
+     */
+    @Test
+    void testUnknownOverflowPolicyIsRejected() {
+        JdbcLedgerRepository repository = new JdbcLedgerRepository(dataSource, new EventStore(), new BalanceService());
+        ReflectionTestUtils.setField(repository, "overflowPolicy", "spill");
+
+        assertThrows(IllegalArgumentException.class, repository::start, "An unknown overflow policy should be rejected");
+    }
+}
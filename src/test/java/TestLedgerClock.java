@@ -0,0 +1,60 @@
+import dev.codescreen.util.LedgerClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLedgerClock {
+
+    @AfterEach
+    void tearDown() throws Exception {
+        LedgerClock.stop();
+    }
+
+    /**
+     * Tests that the ticker thread can be stopped and restarted, and that the clock keeps working while stopped.
+     */
+    @Test
+    void testTickerStartsAndStops() throws Exception {
+        LedgerClock.start();
+        assertTrue(LedgerClock.isRunning(), "Ticker should be running after start");
+        assertTrue(tickerThreadAlive(), "Ticker thread should exist after start");
+
+        LedgerClock.stop();
+        assertFalse(LedgerClock.isRunning(), "Ticker should not be running after stop");
+        assertFalse(tickerThreadAlive(), "Ticker thread should have exited after stop");
+        long before = System.currentTimeMillis() * 1000;
+        assertTrue(LedgerClock.currentTimeMicros() >= before, "Stopped clock should read the system time");
+
+        LedgerClock.start();
+        assertTrue(tickerThreadAlive(), "Ticker should restart after a stop");
+    }
+
+    /**
+     * Tests that formatted timestamps parse back to the same local date-time, across seconds and fractions.
+     */
+    @Test
+    void testAppendLocalDateTimeRoundTrips() {
+        long base = LedgerClock.toEpochMicros(LocalDateTime.of(2024, 5, 1, 12, 30, 45));
+        long[] offsets = {0, 7_000, 123_000, 999_000, 1_000_000, 1_000_042, 61_500_000};
+        for (long offset : offsets) {
+            String formatted = LedgerClock.appendLocalDateTime(new StringBuilder(), base + offset).toString();
+
+            assertEquals(LedgerClock.toLocalDateTime(base + offset), LocalDateTime.parse(formatted),
+                    "Formatted " + formatted + " should parse back to the same time");
+        }
+        assertEquals("2024-05-01T12:30:45.007", LedgerClock.appendLocalDateTime(new StringBuilder(), base + 7_000).toString(),
+                "Milliseconds should be zero-padded");
+    }
+
+    private static boolean tickerThreadAlive() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("ledger-clock".equals(thread.getName()) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
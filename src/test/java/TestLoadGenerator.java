@@ -0,0 +1,183 @@
+import dev.codescreen.loadgen.LedgerTarget;
+import dev.codescreen.loadgen.LoadGenerator;
+import dev.codescreen.loadgen.LoadReport;
+import dev.codescreen.loadgen.ReplayScript;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLoadGenerator {
+
+    /**
+     * Tests replaying the bundled sample script against the service; its known inconsistencies must be reported.
+     */
+    @Test
+    void testReplaySampleScript() throws Exception {
+        ReplayScript script;
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/sample_tests"), StandardCharsets.UTF_8)) {
+            script = ReplayScript.parse(reader);
+        }
+
+        LoadReport report = new LoadGenerator(new LedgerTarget.Direct()).replay(script, 0);
+
+        assertEquals(6, report.getOperations(), "Every well-formed line should be sent");
+        assertEquals(5, report.getVerified(), "Lines consistent with the ledger rules should verify");
+        assertEquals(1, report.getMalformed().size(), "The line without an amount should be reported as malformed");
+        assertEquals(1, report.getMismatches().size(), "Approving a debit on an empty account should be reported");
+        assertTrue(report.getMismatches().get(0).contains("msgId 7"), "The mismatch should name the offending message");
+        assertFalse(report.isSuccessful(), "A run with mismatches should not be successful");
+    }
+
+    /**
+     * Tests a rate-scheduled replay of a consistent script, treating DECLINED and DENIED alike.
+     */
+    @Test
+    void testScheduledReplayVerifiesEveryLine() throws Exception {
+        String text = "action,msgId,userId,debitOrCredit,amount,responseCode,balance\n"
+                + "LOAD,1,1,CREDIT,100,APPROVED,100.00\n"
+                + "AUTHORIZATION,2,1,DEBIT,40.50,APPROVED,59.50\n"
+                + "AUTHORIZATION,3,1,DEBIT,60,DECLINED,59.50\n"
+                + "AUTHORIZATION,4,2,DEBIT,1,DENIED,0.00\n";
+
+        LoadReport report = new LoadGenerator(new LedgerTarget.Direct()).replay(ReplayScript.parse(new StringReader(text)), 1000);
+
+        assertTrue(report.isSuccessful(), report.format());
+        assertEquals(4, report.getVerified(), "All lines should verify");
+        assertTrue(report.correctedPercentile(50) >= report.servicePercentile(50),
+                "Corrected latency includes the service latency");
+    }
+
+    /**
+     * Tests a multi-threaded synthetic Zipfian run completes every request and reports ordered percentiles.
+     */
+    @Test
+    void testSyntheticZipfianWorkload() throws Exception {
+        LoadReport report = new LoadGenerator(new LedgerTarget.Direct()).synthetic(20_000, 500, 0.99, 0.5, 2, 0, 42);
+
+        assertEquals(20_000, report.getOperations(), "Every request should complete");
+        assertEquals(0, report.getErrors(), "No request should fail");
+        assertTrue(report.getThroughput() > 0, "Throughput should be reported");
+        assertTrue(report.correctedPercentile(50) <= report.correctedPercentile(99.9), "Percentiles should be ordered");
+        assertTrue(report.isSuccessful(), report.format());
+    }
+
+    /**
+     * Tests that a request the target rejects with an unchecked exception fails only its own line, and that
+     * balances off by floating-point noise still count as approved.
+     */
+    @Test
+    void testReplaySurvivesRejectedRequestsAndRoundedBalances() throws Exception {
+        LedgerTarget.Direct direct = new LedgerTarget.Direct();
+        LedgerTarget target = new LedgerTarget() {
+            @Override
+            public double load(String userId, double amount) {
+                return direct.load(check(userId), amount);
+            }
+
+            @Override
+            public double authorize(String userId, double amount) {
+                return direct.authorize(check(userId), amount) + 1e-9; // Noise a remote service might introduce.
+            }
+
+            @Override
+            public double balance(String userId) {
+                return direct.balance(userId);
+            }
+
+            private String check(String userId) {
+                if (userId.contains(" ")) {
+                    throw new IllegalArgumentException("Illegal character in path: " + userId);
+                }
+                return userId;
+            }
+        };
+        String text = "action,msgId,userId,debitOrCredit,amount,responseCode,balance\n"
+                + "LOAD,1,1,CREDIT,0.3,APPROVED,0.30\n"
+                + "LOAD,2,a b,CREDIT,5,APPROVED,5.00\n"
+                + "AUTHORIZATION,3,1,DEBIT,0.1,APPROVED,0.20\n";
+
+        LoadReport report = new LoadGenerator(target).replay(ReplayScript.parse(new StringReader(text)), 0);
+
+        assertEquals(1, report.getErrors(), "Only the rejected line should fail");
+        assertEquals(2, report.getVerified(), "The other lines should still be sent and verified");
+        assertEquals(1, report.getMismatches().size(), "The rejected line should be reported");
+    }
+
+    /**
+     * Tests that the open loop keeps issuing requests on schedule while earlier ones are still outstanding,
+     * where the closed loop is held back by every slow response.
+     */
+    @Test
+    void testOpenLoopIsNotHeldBackBySlowResponses() throws Exception {
+        LedgerTarget.Direct direct = new LedgerTarget.Direct();
+        // Every response takes 20 ms, whichever way it is sent.
+        LedgerTarget slow = new LedgerTarget() {
+            @Override
+            public double load(String userId, double amount) {
+                sleep();
+                return direct.load(userId, amount);
+            }
+
+            @Override
+            public double authorize(String userId, double amount) {
+                sleep();
+                return direct.authorize(userId, amount);
+            }
+
+            @Override
+            public CompletableFuture<Double> loadAsync(String userId, double amount, Executor executor) {
+                return CompletableFuture.supplyAsync(() -> direct.load(userId, amount),
+                        CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+            }
+
+            @Override
+            public CompletableFuture<Double> authorizeAsync(String userId, double amount, Executor executor) {
+                return CompletableFuture.supplyAsync(() -> direct.authorize(userId, amount),
+                        CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+            }
+
+            @Override
+            public double balance(String userId) {
+                return direct.balance(userId);
+            }
+
+            private void sleep() {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        LoadGenerator generator = new LoadGenerator(slow);
+
+        LoadReport open = generator.synthetic(50, 10, 0.99, 0.5, 1, 500, 42, LoadGenerator.Pacing.OPEN_LOOP);
+        LoadReport closed = generator.synthetic(50, 10, 0.99, 0.5, 1, 500, 42, LoadGenerator.Pacing.CLOSED_LOOP);
+
+        assertEquals(50, open.getOperations(), "Every open-loop request should complete");
+        assertTrue(open.getThroughput() > 3 * closed.getThroughput(),
+                "Open loop should not wait for responses:\n" + open.format() + closed.format());
+        assertTrue(open.correctedPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(20),
+                "Latency should be recorded when each request completes");
+    }
+
+    /**
+     * Tests that an open loop without a rate is rejected rather than sending everything at once.
+     */
+    @Test
+    void testOpenLoopRequiresRate() {
+        LoadGenerator generator = new LoadGenerator(new LedgerTarget.Direct());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.synthetic(10, 10, 0.99, 0.5, 1, 0, 42, LoadGenerator.Pacing.OPEN_LOOP),
+                "An open loop needs a rate");
+    }
+}
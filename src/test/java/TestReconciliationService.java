@@ -0,0 +1,132 @@
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import dev.codescreen.service.ReconciliationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestReconciliationService {
+
+    private EventStore eventStore; // Event log the verifier reads from.
+    private BalanceService balanceService; // Projection the verifier checks.
+    private ReconciliationService reconciliationService; // The verifier under test, driven pass by pass.
+    private final String accountId = "12345"; // Sample account ID for testing.
+    private final LocalDateTime timestamp = LocalDateTime.now(); // Timestamp used for events.
+
+    /**
+     * Creates fresh collaborators before each test; the background thread is never started.
+     */
+    @BeforeEach
+    void setUp() {
+        eventStore = new EventStore();
+        balanceService = new BalanceService();
+        reconciliationService = new ReconciliationService(eventStore, balanceService);
+    }
+
+    /**
+     * Tests that consistent balances produce no divergences and only changed accounts are checked.
+     */
+    @Test
+    void testConsistentBalances() {
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        eventStore.addEvent(new TransactionEvent(accountId, 30.0, timestamp, 70.0, "authorization", true));
+        eventStore.addEvent(new TransactionEvent(accountId, 500.0, timestamp, 70.0, "authorization", false));
+        balanceService.updateBalance(accountId, 70.0);
+
+        assertEquals(0, reconciliationService.reconcile(), "Consistent balance should not diverge");
+        assertEquals(1, reconciliationService.getAccountsChecked(), "The changed account should be checked");
+
+        assertEquals(0, reconciliationService.reconcile(), "Nothing changed, nothing to report");
+        assertEquals(1, reconciliationService.getAccountsChecked(), "Unchanged accounts should not be re-checked");
+    }
+
+    /**
+     * Tests that a mismatch is confirmed on the following pass when no new events arrive.
+     */
+    @Test
+    void testDivergenceIsConfirmedOnSecondPass() {
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        balanceService.updateBalance(accountId, 250.0); // Cached balance no longer matches the event log.
+
+        assertEquals(0, reconciliationService.reconcile(), "First mismatch should only mark the account as suspect");
+        assertEquals(1, reconciliationService.reconcile(), "Repeated mismatch should be reported");
+        assertEquals(1, reconciliationService.getDivergences(), "Divergence counter should be incremented");
+        assertEquals(0, reconciliationService.reconcile(), "Reported divergence should not be repeated");
+    }
+
+    /**
+     * Tests that a transient mismatch resolved by a later update is not reported.
+     */
+    @Test
+    void testTransientMismatchIsNotReported() {
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+
+        assertEquals(0, reconciliationService.reconcile(), "Balance not yet updated should only be suspect");
+        balanceService.updateBalance(accountId, 100.0);
+        assertEquals(0, reconciliationService.reconcile(), "Caught-up balance should clear the suspicion");
+        assertEquals(0, reconciliationService.getDivergences(), "No divergence should be recorded");
+    }
+
+    /**
+     * Tests that a mismatch on a busy account is confirmed even though new events arrive between passes.
+     */
+    @Test
+    void testDivergenceOnBusyAccountIsConfirmed() {
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        balanceService.updateBalance(accountId, 250.0);
+
+        assertEquals(0, reconciliationService.reconcile(), "First mismatch should only mark the account as suspect");
+        eventStore.addEvent(new TransactionEvent(accountId, 10.0, timestamp, 110.0, "load", true));
+        balanceService.updateBalance(accountId, 260.0); // Still off by the same amount.
+        assertEquals(1, reconciliationService.reconcile(), "Mismatch should be reported despite the new event");
+    }
+
+    /**
+     * Tests that a long backlog is folded over several passes and only compared once it is caught up.
+     */
+    @Test
+    void testBacklogIsFoldedAcrossPasses() {
+        ReflectionTestUtils.setField(reconciliationService, "maxEventsPerPass", 4096);
+        for (int i = 1; i <= 10_000; i++) {
+            eventStore.addEvent(accountId, 1.0, i, i, "load", true);
+        }
+        balanceService.updateBalance(accountId, 5.0); // Wrong, but only visible once every event is folded.
+
+        assertEquals(0, reconciliationService.reconcile(), "First slice should not be compared");
+        assertEquals(0, reconciliationService.reconcile(), "Second slice should not be compared");
+        assertEquals(0, reconciliationService.reconcile(), "Caught-up digest should only mark the account as suspect");
+        assertEquals(1, reconciliationService.reconcile(), "Repeated mismatch should be reported");
+        assertEquals(4, reconciliationService.getAccountsChecked(), "The unfolded account should be carried over");
+    }
+
+    /**
+     * Tests that a running balance that no longer matches the events is reported on the first pass.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRunningBalanceDivergenceIsReported() {
+        eventStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        balanceService.updateBalance(accountId, 100.0);
+        Object log = ((Map<String, Object>) ReflectionTestUtils.getField(eventStore, "store")).get(accountId);
+        ReflectionTestUtils.setField(log, "balance", 900.0); // Requests would now be authorized against 900.
+
+        assertEquals(1, reconciliationService.reconcile(), "Running balance mismatch should be reported at once");
+        assertEquals(1, reconciliationService.getDivergences(), "Divergence counter should be incremented");
+    }
+
+    /**
+     * Tests that a CPU budget of zero is rejected at startup instead of disabling the verifier after its first pass.
+     */
+    @Test
+    void testZeroCpuBudgetIsRejected() {
+        ReflectionTestUtils.setField(reconciliationService, "cpuBudget", 0.0);
+
+        assertThrows(IllegalArgumentException.class, reconciliationService::start, "A zero budget should be rejected");
+    }
+}
@@ -0,0 +1,233 @@
+import dev.codescreen.model.TransactionEvent;
+import dev.codescreen.replication.ReplicationFollower;
+import dev.codescreen.replication.ReplicationLeader;
+import dev.codescreen.repository.JdbcLedgerRepository;
+import dev.codescreen.service.BalanceService;
+import dev.codescreen.service.EventStore;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestReplication {
+
+    private EventStore leaderStore; // Event store of the leader instance.
+    private EventStore followerStore; // Event store of the follower instance.
+    private BalanceService followerBalances; // Balance projection of the follower instance.
+    private ReplicationLeader leader;
+    private ReplicationFollower follower;
+    private final String accountId = "12345"; // Sample account ID for testing.
+    private final LocalDateTime timestamp = LocalDateTime.now(); // Timestamp used for events.
+
+    /**
+     * Starts a leader on an ephemeral port and a follower connected to it, each with its own stores.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        leaderStore = new EventStore(true);
+        leader = new ReplicationLeader(leaderStore);
+        ReflectionTestUtils.setField(leader, "port", 0);
+        leader.start();
+
+        followerStore = new EventStore();
+        followerBalances = new BalanceService();
+        follower = new ReplicationFollower(followerStore, followerBalances, Optional.empty());
+        ReflectionTestUtils.setField(follower, "leaderPort", leader.getLocalPort());
+        ReflectionTestUtils.setField(follower, "reconnectMs", 50L);
+        follower.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        follower.stop();
+        leader.stop();
+    }
+
+    /**
+     * Tests that events appended on the leader are applied on the follower in order with their balances.
+     */
+    @Test
+    void testEventsAreReplicatedInOrder() throws Exception {
+        leaderStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        leaderStore.addEvent(new TransactionEvent(accountId, 30.0, timestamp, 70.0, "authorization", true));
+        leaderStore.addEvent(new TransactionEvent(accountId, 90.0, timestamp, 70.0, "authorization", false));
+
+        awaitTrue(() -> follower.getAppliedSequence() == 3, "Follower should apply all three events");
+        List<TransactionEvent> events = followerStore.getEvents(accountId);
+        assertEquals(3, events.size(), "Follower should hold all events");
+        assertEquals("load", events.get(0).getType(), "Events should be applied in order");
+        assertFalse(events.get(2).isSuccess(), "Declined events should be replicated too");
+        assertEquals(70.0, followerBalances.getBalance(accountId), 0.001, "Follower balance should match the leader");
+        awaitTrue(() -> leader.getLagEvents() == 0, "Leader should see the follower caught up");
+        assertEquals(0, follower.getLagEvents(), "Follower should report no lag once caught up");
+    }
+
+    /**
+     * Tests that a follower resumes from its last applied sequence number after losing the connection.
+     */
+    @Test
+    void testFollowerCatchesUpAfterDisconnect() throws Exception {
+        leaderStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        awaitTrue(() -> follower.getAppliedSequence() == 1, "Follower should apply the first event");
+
+        follower.disconnect();
+        for (int i = 1; i <= 500; i++) {
+            leaderStore.addEvent(new TransactionEvent(accountId, 1.0, timestamp, 100.0 + i, "load", true));
+        }
+
+        awaitTrue(() -> follower.getAppliedSequence() == 501, "Follower should catch up after reconnecting");
+        assertEquals(501, followerStore.getEvents(accountId).size(), "No event should be duplicated or lost");
+        assertEquals(600.0, followerBalances.getBalance(accountId), 0.001, "Follower balance should match the leader");
+    }
+
+    /**
+     * Tests that a follower which replicated from a previous leader run discards its events and resyncs from scratch
+     * instead of skipping the new leader's events.
+     */
+    @Test
+    void testFollowerResyncsAfterLeaderRestart() throws Exception {
+        leaderStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        leaderStore.addEvent(new TransactionEvent(accountId, 30.0, timestamp, 70.0, "authorization", true));
+        awaitTrue(() -> follower.getAppliedSequence() == 2, "Follower should apply the first run's events");
+
+        // A restarted leader without persistence starts from an empty store.
+        EventStore restartedStore = new EventStore(true);
+        ReplicationLeader restarted = new ReplicationLeader(restartedStore);
+        ReflectionTestUtils.setField(restarted, "port", 0);
+        restarted.start();
+        restartedStore.addEvent(new TransactionEvent(accountId, 5.0, timestamp, 5.0, "load", true));
+        leader.stop();
+        leader = restarted;
+        ReflectionTestUtils.setField(follower, "leaderPort", restarted.getLocalPort());
+        follower.disconnect();
+
+        awaitTrue(() -> follower.getAppliedSequence() == 1 && followerStore.getEventCount(accountId) == 1,
+                "Follower should rebuild from the restarted leader's single event");
+        assertEquals(5.0, followerBalances.getBalance(accountId), 0.001, "Follower balance should match the new leader");
+    }
+
+    /**
+     * Tests that a leader refuses to start over a store that assigns no sequence numbers.
+     */
+    @Test
+    void testLeaderRequiresSequencedStore() {
+        ReplicationLeader unsequenced = new ReplicationLeader(new EventStore());
+
+        assertThrows(IllegalStateException.class, unsequenced::start, "A standalone store cannot be replicated");
+    }
+
+    /**
+     * Tests that a follower with persistence resumes after its own restart from the events restored from the
+     * database, instead of applying them a second time.
+     */
+    @Test
+    void testPersistentFollowerResumesAfterRestart() throws Exception {
+        JdbcDataSource dataSource = newDataSource();
+        leaderStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        leaderStore.addEvent(new TransactionEvent(accountId, 30.0, timestamp, 70.0, "authorization", true));
+        PersistentFollower first = new PersistentFollower(dataSource);
+        awaitTrue(() -> first.follower.getAppliedSequence() == 2, "Follower should apply the leader's events");
+        first.stop();
+
+        leaderStore.addEvent(new TransactionEvent(accountId, 5.0, timestamp, 75.0, "load", true));
+        PersistentFollower restarted = new PersistentFollower(dataSource);
+        awaitTrue(() -> restarted.follower.getAppliedSequence() == 3, "Restarted follower should resume after the restored events");
+        restarted.stop();
+
+        assertEquals(3, restarted.eventStore.getEventCount(accountId), "Restored events should not be applied twice");
+        assertEquals(75.0, restarted.eventStore.getBalance(accountId), 0.001, "Balance should not be doubled");
+        assertEquals(3, countEventRows(dataSource), "Restored events should not be persisted twice");
+    }
+
+    /**
+     * Tests that a follower with persistence deletes its persisted events when it resyncs from a restarted leader,
+     * so they are not restored on top of the new leader's events later.
+     */
+    @Test
+    void testPersistentFollowerResyncDeletesPersistedEvents() throws Exception {
+        JdbcDataSource dataSource = newDataSource();
+        leaderStore.addEvent(new TransactionEvent(accountId, 100.0, timestamp, 100.0, "load", true));
+        leaderStore.addEvent(new TransactionEvent(accountId, 30.0, timestamp, 70.0, "authorization", true));
+        PersistentFollower persistent = new PersistentFollower(dataSource);
+        awaitTrue(() -> persistent.follower.getAppliedSequence() == 2, "Follower should apply the first run's events");
+
+        EventStore restartedStore = new EventStore(true);
+        ReplicationLeader restarted = new ReplicationLeader(restartedStore);
+        ReflectionTestUtils.setField(restarted, "port", 0);
+        restarted.start();
+        restartedStore.addEvent(new TransactionEvent(accountId, 5.0, timestamp, 5.0, "load", true));
+        leader.stop();
+        leader = restarted;
+        ReflectionTestUtils.setField(persistent.follower, "leaderPort", restarted.getLocalPort());
+        persistent.follower.disconnect();
+
+        awaitTrue(() -> persistent.follower.getAppliedSequence() == 1 && persistent.eventStore.getEventCount(accountId) == 1,
+                "Follower should rebuild from the restarted leader");
+        persistent.stop();
+        assertEquals(1, countEventRows(dataSource), "Only the new leader's event should remain persisted");
+        PersistentFollower reloaded = new PersistentFollower(dataSource);
+        reloaded.stop();
+        assertEquals(5.0, reloaded.eventStore.getBalance(accountId), 0.001, "Restored balance should match the new leader");
+    }
+
+    /**
+     * A follower with its own EventStore, BalanceService and write-behind persistence, connected to the test's leader.
+     */
+    private class PersistentFollower {
+        final EventStore eventStore = new EventStore();
+        final JdbcLedgerRepository repository;
+        final ReplicationFollower follower;
+
+        PersistentFollower(JdbcDataSource dataSource) throws Exception {
+            BalanceService balances = new BalanceService();
+            repository = new JdbcLedgerRepository(dataSource, eventStore, balances);
+            repository.start();
+            follower = new ReplicationFollower(eventStore, balances, Optional.of(repository));
+            ReflectionTestUtils.setField(follower, "leaderPort", leader.getLocalPort());
+            ReflectionTestUtils.setField(follower, "reconnectMs", 50L);
+            follower.start();
+        }
+
+        void stop() throws Exception {
+            follower.stop();
+            repository.stop();
+        }
+    }
+
+    private static JdbcDataSource newDataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:follower" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static int countEventRows(JdbcDataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM ledger_event")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // Polls the condition for up to ten seconds.
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(message);
+            }
+            Thread.sleep(10);
+        }
+    }
+}